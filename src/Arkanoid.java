@@ -7,45 +7,92 @@ import java.io.InputStream;
 import java.util.Objects;
 
 import animation.AnimationRunner;
+import animation.GuiDisplay;
+import animation.HeadlessDisplay;
 import animation.HighScoresAnimation;
 import animation.KeyPressStoppableAnimation;
+import animation.ScaledDisplay;
 import biuoop.DialogManager;
 import biuoop.GUI;
 import biuoop.KeyboardSensor;
 import highscores.HighScoresTable;
 import levels.GameFlow;
+import levels.GameLevel;
 import levels.Tools;
 import levels.LevelInformation;
 import animation.MenuAnimation;
 import menu.ShowHighScoresTask;
 import menu.Task;
+import readingfiles.ImageCache;
+import readingfiles.LevelPack;
 import readingfiles.LevelSets;
 import readingfiles.LevelSpecificationReader;
+import sprites.Palette;
 
 /**
  * The Arkanoid class contains the main function that runs the Arkanoid game.
  */
 public class Arkanoid {
-    // Set the sizes of some static final variables for our Arkanoid game.
-    public static final int SURFACE_WIDTH = 800;
-    public static final int SURFACE_HEIGHT = 600;
+    // Set the sizes of some static final variables for our Arkanoid game (the surface is the logical size that the
+    // game draws on, and the window may be of any other size).
+    public static final int SURFACE_WIDTH = GameLevel.SURFACE_WIDTH;
+    public static final int SURFACE_HEIGHT = GameLevel.SURFACE_HEIGHT;
     public static final int FRAMES_PER_SECOND = 60;
+    // The number of steps of the game logic in any second (independent of the frames that are displayed).
+    public static final int STEPS_PER_SECOND = 240;
 
     /**
      * The main function creates a game object, initializes and runs it.
-     * @param args the levels sets that the user wants to run.
+     * @param args the levels sets that the user wants to run, and the options of the game ("--dirty-rectangles" to
+     *             draw only the areas of the screen that changed in each frame, "--pipelined" to draw the frames
+     *             of the game by a render thread, "--size=WIDTHxHEIGHT" to open a window of the given size (the
+     *             frames are scaled to it), "--headless" to run the levels of the first level set without a
+     *             screen, as fast as possible, and print the score).
      */
     public static void main(String[] args) {
         // The path of the default level settings.
         String pathOfLevelSets = "level_sets.txt";
-        // If the user wants to run his own levels, he sends the path of the settings file as the 1st argument to main.
-        if (args.length > 0) {
-            pathOfLevelSets = args[0];
+        boolean dirtyRectangles = false;
+        boolean pipelined = false;
+        boolean headless = false;
+        int windowWidth = SURFACE_WIDTH;
+        int windowHeight = SURFACE_HEIGHT;
+        // If the user wants to run his own levels, he sends the path of the settings file as an argument to main.
+        for (String arg : args) {
+            if (arg.equals("--dirty-rectangles")) {
+                dirtyRectangles = true;
+            } else if (arg.equals("--pipelined")) {
+                pipelined = true;
+            } else if (arg.equals("--headless")) {
+                headless = true;
+            } else if (arg.startsWith("--size=")) {
+                String[] size = arg.substring("--size=".length()).split("x");
+                windowWidth = Integer.parseInt(size[0]);
+                windowHeight = Integer.parseInt(size[1]);
+            } else {
+                pathOfLevelSets = arg;
+            }
+        }
+        if (headless) {
+            runHeadless(pathOfLevelSets);
+            return;
         }
         // Initialize some elementary objects that will be used for building the game.
-        GUI gui = new GUI("Arkanoid", SURFACE_WIDTH, SURFACE_HEIGHT);
+        GUI gui = new GUI("Arkanoid", windowWidth, windowHeight);
         DialogManager dialog = gui.getDialogManager();
-        AnimationRunner animationRunner = new AnimationRunner(gui, FRAMES_PER_SECOND);
+        AnimationRunner animationRunner;
+        if (windowWidth == SURFACE_WIDTH && windowHeight == SURFACE_HEIGHT) {
+            animationRunner = new AnimationRunner(gui, FRAMES_PER_SECOND, STEPS_PER_SECOND);
+        } else {
+            // The game draws on a surface of its own size, and each frame is scaled to the window once.
+            ScaledDisplay display = new ScaledDisplay(new GuiDisplay(gui), SURFACE_WIDTH, SURFACE_HEIGHT);
+            animationRunner = new AnimationRunner(display, FRAMES_PER_SECOND, STEPS_PER_SECOND);
+        }
+        animationRunner.setDirtyRectangles(dirtyRectangles);
+        animationRunner.setPipelined(pipelined);
+        // Decode the images of the menus and the HUD once, before the first frame is displayed.
+        ImageCache.preload("background_images/blocks.jpg", "general_images/Arkanoid.jpg",
+            "general_images/HighScores.jpg", "general_images/heart.png");
         KeyboardSensor keyboard = animationRunner.getKeyboardSensor();
         HighScoresTable highScoresTable = new HighScoresTable(5);
         // Tools is an object that helps to build the game.
@@ -63,10 +110,7 @@ public class Arkanoid {
         for (Map.Entry<String, String> entry: nameAndPath.entrySet()) {
             subMenu.addSelection(entry.getKey().split(":")[0],
                     "for " + entry.getKey().split(":")[1] + " levels", () -> {
-                        InputStream input = ClassLoader.getSystemClassLoader().getResourceAsStream(
-                            entry.getValue());
-                        Reader secondReader = new InputStreamReader(Objects.requireNonNull(input));
-                        List<LevelInformation> levels = LevelSpecificationReader.fromReader(secondReader);
+                        List<LevelInformation> levels = readLevels(entry.getValue());
                         // Create the animation of the game.
                         GameFlow game = new GameFlow(animationRunner, animationRunner.getKeyboardSensor(),
                             dialog, highScoresTable);
@@ -96,4 +140,48 @@ public class Arkanoid {
         }
     }
 
+    /**
+     * Run the levels of the first level set without a screen: the frames are not drawn, the time of the game is
+     * simulated (so the game runs as fast as possible), and the end screens are skipped by keys that are held.
+     * Nobody moves the paddle, so the game ends when the balls are lost or when the blocks are removed. The colors
+     * are chosen by a fixed seed, so every run draws the same frames.
+     * @param pathOfLevelSets the path of the level sets file.
+     */
+    private static void runHeadless(String pathOfLevelSets) {
+        Palette.setSeed(0);
+        HeadlessDisplay display = new HeadlessDisplay(SURFACE_WIDTH, SURFACE_HEIGHT, false);
+        display.getKeyboardSensor().press("c");
+        display.getKeyboardSensor().press(KeyboardSensor.SPACE_KEY);
+        AnimationRunner animationRunner = new AnimationRunner(display, FRAMES_PER_SECOND, STEPS_PER_SECOND);
+        InputStream inputS = ClassLoader.getSystemClassLoader().getResourceAsStream(pathOfLevelSets);
+        Map<String, String> nameAndPath = LevelSets.mapToNameAndPath(
+            new InputStreamReader(Objects.requireNonNull(inputS)));
+        String levelsPath = nameAndPath.values().iterator().next();
+        List<LevelInformation> levels = readLevels(levelsPath);
+        // A table of size 0 doesn't take the score, so the high scores file isn't changed.
+        HighScoresTable highScoresTable = new HighScoresTable(0);
+        GameFlow game = new GameFlow(animationRunner, display.getKeyboardSensor(), display.getDialogManager(),
+            highScoresTable);
+        long startTime = System.nanoTime();
+        game.runLevels(levels);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+        System.out.println("Score: " + game.getScore() + ", frames: " + display.getFramesShown()
+            + ", time: " + elapsedMillis + " ms");
+    }
+
+    /**
+     * Read the levels of a level set: a level pack (that LevelPackCompiler compiled) is mapped to the memory and its
+     * levels are created when they are played, and the information of the levels of a level definitions file is
+     * parsed and checked now, while their images and their blocks are loaded when they are played.
+     * @param levelsPath the resource path of the levels.
+     * @return the levels.
+     */
+    private static List<LevelInformation> readLevels(String levelsPath) {
+        if (levelsPath.endsWith(LevelPack.EXTENSION)) {
+            return LevelPack.fromResource(levelsPath).levels();
+        }
+        InputStream input = ClassLoader.getSystemClassLoader().getResourceAsStream(levelsPath);
+        return LevelSpecificationReader.fromReader(new InputStreamReader(Objects.requireNonNull(input)));
+    }
+
 } // Arkanoid class
\ No newline at end of file
@@ -7,12 +7,29 @@ import biuoop.Sleeper;
 
 /**
  * The AnimationRunner class takes a non-specific Animation object and runs it.
+ * A SteppedAnimation is run with a fixed timestep: its logic advances in steps of 1 / stepsPerSecond seconds, as many
+ * steps as the real time that has passed, so the speed of the game doesn't depend on the speed of the drawing.
+ * In the pipelined mode, the frames of a SteppedAnimation are only recorded by the thread of the game, and they are
+ * drawn on the screen by a render thread that the runner owns.
+ * On a display that doesn't run in real time (a headless display), the runner doesn't sleep between the frames, and
+ * the time of the animations is simulated: each frame advances it by 1 / framesPerSecond seconds.
  */
 public class AnimationRunner {
+    // The longest time (in nanoseconds) that is added to the steps of a single frame (after a pause, for example).
+    private static final long MAX_FRAME_NANOS = 250000000L;
+    private static final long NANOS_PER_SECOND = 1000000000L;
     // Declare the members of the class.
-    private GUI gui;
+    private Display display;
     private int framesPerSecond;
+    private int stepsPerSecond;
     private Sleeper sleeper;
+    private boolean dirtyRectangles = false;
+    private boolean pipelined = false;
+    // The frames that are passed to the render thread (created when the pipelined mode is first used).
+    private FrameExchange frames;
+    private RenderThread renderThread;
+    // The number of the animations that were run so far (a step of an animation may run another one, like a pause).
+    private long runs = 0;
 
     /**
      * Constructor.
@@ -20,9 +37,30 @@ public class AnimationRunner {
      * @param framesPerSecond the number of frames that should be displayed in any second.
      */
     public AnimationRunner(GUI gui, int framesPerSecond) {
+        this(gui, framesPerSecond, framesPerSecond);
+    }
+
+    /**
+     * Constructor.
+     * @param gui a Graphical User Interface that the game is displayed on it.
+     * @param framesPerSecond the number of frames that should be displayed in any second.
+     * @param stepsPerSecond the number of steps of logic that a SteppedAnimation performs in any second.
+     */
+    public AnimationRunner(GUI gui, int framesPerSecond, int stepsPerSecond) {
         // Use a platform of GUI in the animation runner.
-        this.gui = gui;
+        this(new GuiDisplay(gui), framesPerSecond, stepsPerSecond);
+    }
+
+    /**
+     * Constructor.
+     * @param display the display that the game is displayed on.
+     * @param framesPerSecond the number of frames that should be displayed in any second.
+     * @param stepsPerSecond the number of steps of logic that a SteppedAnimation performs in any second.
+     */
+    public AnimationRunner(Display display, int framesPerSecond, int stepsPerSecond) {
+        this.display = display;
         this.framesPerSecond = framesPerSecond;
+        this.stepsPerSecond = stepsPerSecond;
         this.sleeper = new Sleeper();
     }
 
@@ -31,6 +69,9 @@ public class AnimationRunner {
      * @param animation the animation that should run.
      */
     public void run(Animation animation) {
+        this.runs++;
+        // The animation draws on the screen directly, so the render thread shouldn't draw at the same time.
+        this.stopRenderThread();
         double dt = 1.0 / this.framesPerSecond;
         // Each frame in the animation can last 1000 / framesPerSecond milliseconds.
         int millisecondsPerFrame = 1000 / this.framesPerSecond;
@@ -38,9 +79,12 @@ public class AnimationRunner {
         while (!animation.shouldStop()) {
             long startTime = System.currentTimeMillis(); // Timing.
             // Do one frame of the animation and show it.
-            DrawSurface drawSurface = gui.getDrawSurface();
+            DrawSurface drawSurface = this.display.getDrawSurface();
             animation.doOneFrame(drawSurface, dt);
-            gui.show(drawSurface);
+            this.display.show(drawSurface);
+            if (!this.display.isRealTime()) {
+                continue;
+            }
             // Timing - the time it takes to perform the work in the loop may be non-negligible.
             // Therefore, subtract the time it takes to do the work from the number of milliseconds per frame.
             // If the subtraction result is > 0, the sleeper should sleep for this number of milliseconds.
@@ -52,19 +96,134 @@ public class AnimationRunner {
         }
     } // run
 
+    /**
+     * Run the given animation with a fixed timestep. In each frame, the time that has passed since the previous frame
+     * is added to an accumulator, and the animation performs a step for each whole step in the accumulator. The frame
+     * is drawn between the last two steps, by the part of the next step that is left in the accumulator. If a step
+     * runs another animation (like a pause screen), the time that it took isn't counted as the time of the steps.
+     * @param animation the animation that should run.
+     */
+    public void run(SteppedAnimation animation) {
+        this.runs++;
+        double stepSeconds = 1.0 / this.stepsPerSecond;
+        long nanosPerStep = NANOS_PER_SECOND / this.stepsPerSecond;
+        long nanosPerFrame = NANOS_PER_SECOND / this.framesPerSecond;
+        long accumulator = 0;
+        long previousTime = System.nanoTime();
+        while (!animation.shouldStop()) {
+            long startTime = System.nanoTime();
+            if (this.display.isRealTime()) {
+                // A long frame is clamped, so it's not followed by a burst of steps.
+                accumulator += Math.min(startTime - previousTime, MAX_FRAME_NANOS);
+            } else {
+                accumulator += nanosPerFrame;
+            }
+            previousTime = startTime;
+            while (accumulator >= nanosPerStep && !animation.shouldStop()) {
+                long runsBefore = this.runs;
+                animation.step(stepSeconds);
+                accumulator -= nanosPerStep;
+                if (this.runs != runsBefore) {
+                    // The step ran another animation, so the steps that were due before it are dropped, and the time
+                    // is counted again from its end.
+                    accumulator = 0;
+                    previousTime = System.nanoTime();
+                }
+            }
+            if (this.pipelined) {
+                // Record the frame and pass it to the render thread (it's started again after a nested animation).
+                if (this.renderThread == null) {
+                    this.startRenderThread();
+                }
+                CommandBuffer frame = this.frames.back();
+                frame.clear();
+                animation.render(frame, (double) accumulator / nanosPerStep);
+                this.frames.publish();
+                this.renderThread.frameReady();
+            } else {
+                DrawSurface drawSurface = this.display.getDrawSurface();
+                animation.render(drawSurface, (double) accumulator / nanosPerStep);
+                this.display.show(drawSurface);
+            }
+            if (!this.display.isRealTime()) {
+                continue;
+            }
+            // Sleep for the rest of the frame (in whole milliseconds).
+            long milliSecondLeftToSleep = (nanosPerFrame - (System.nanoTime() - startTime)) / 1000000;
+            if (milliSecondLeftToSleep > 0) {
+                this.sleeper.sleepFor(milliSecondLeftToSleep);
+            }
+        }
+        this.stopRenderThread();
+    } // run
+
+    /**
+     * Start the render thread.
+     */
+    private void startRenderThread() {
+        if (this.frames == null) {
+            DrawSurface d = this.display.getDrawSurface();
+            this.frames = new FrameExchange(d.getWidth(), d.getHeight());
+        }
+        this.renderThread = new RenderThread(this.display, this.frames);
+        this.renderThread.start();
+    }
+
+    /**
+     * Stop the render thread, if it's running.
+     */
+    private void stopRenderThread() {
+        if (this.renderThread != null) {
+            this.renderThread.stop();
+            this.renderThread = null;
+        }
+    }
+
+    /**
+     * Set whether the frames of the stepped animations are drawn on the screen by a render thread (so the thread of
+     * the game only performs the steps and records the frames).
+     * @param pipeline true for the pipelined mode, false for drawing the frames by the thread of the game.
+     */
+    public void setPipelined(boolean pipeline) {
+        this.pipelined = pipeline;
+    }
+
+    /**
+     * Set the rendering mode of the animations: in the dirty rectangles mode, the animations that support it keep
+     * their frame between the calls and draw again only the areas that changed.
+     * @param dirty true for the dirty rectangles mode, false for drawing the whole frame in each call.
+     */
+    public void setDirtyRectangles(boolean dirty) {
+        this.dirtyRectangles = dirty;
+    }
+
+    /**
+     * @return true if the animations should draw only the areas that changed, false otherwise.
+     */
+    public boolean isDirtyRectangles() {
+        return this.dirtyRectangles;
+    }
+
     /**
      * Get a draw surface from the animation runner.
      * @return a draw surface you can draw on.
      */
     public DrawSurface getDrawSurface() {
-        return this.gui.getDrawSurface();
+        return this.display.getDrawSurface();
     }
 
     /**
      * @return the KeyboardSensor of the animation runner.
      */
     public KeyboardSensor getKeyboardSensor() {
-        return this.gui.getKeyboardSensor();
+        return this.display.getKeyboardSensor();
+    }
+
+    /**
+     * @return the display that the animations are displayed on.
+     */
+    public Display getDisplay() {
+        return this.display;
     }
 
 } // AnimationRunner
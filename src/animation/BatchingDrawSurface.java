@@ -0,0 +1,378 @@
+package animation;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.util.Arrays;
+
+import biuoop.DrawSurface;
+
+/**
+ * The BatchingDrawSurface class records the primitives that are drawn on it, and draws them on another surface in
+ * one pass when it's flushed, grouped by their kind and their color, so the color of the surface is changed as few
+ * times as possible. A primitive is moved before another one only if they don't overlap (or they are drawn in the
+ * same color, so their order doesn't matter): each primitive gets a depth that is bigger than the depth of every
+ * earlier primitive it overlaps, and the primitives are drawn by their depth, then by their color and kind. The texts
+ * and the polygons are not recorded: the primitives before them are flushed, and they are drawn directly.
+ */
+public class BatchingDrawSurface implements DrawSurface {
+    // The kinds of the recorded primitives.
+    private static final int FILL_RECTANGLE = 0;
+    private static final int DRAW_RECTANGLE = 1;
+    private static final int FILL_OVAL = 2;
+    private static final int DRAW_OVAL = 3;
+    private static final int DRAW_LINE = 4;
+    private static final int DRAW_IMAGE = 5;
+    // The size of the cells that the overlaps of the primitives are checked in.
+    private static final int CELL_SIZE = 8;
+    // The bits of the sort key of a primitive: depth, color, kind and the index of the primitive.
+    private static final int INDEX_BITS = 21;
+    private static final int COLOR_BITS = 24;
+    private static final int KIND_BITS = 3;
+    private static final int MAX_DEPTH = (1 << 15) - 1;
+    private static final int MAX_PRIMITIVES = 1 << INDEX_BITS;
+    private static final int DEPTH_SHIFT = COLOR_BITS + KIND_BITS + INDEX_BITS;
+    private static final long COLOR_MASK = 0xFFFFFFL << (KIND_BITS + INDEX_BITS);
+    // Declare the members of the class.
+    private DrawSurface target;
+    private Color color;
+    // The color of the target surface (null if it's unknown).
+    private Color targetColor;
+    private int count = 0;
+    private int[] kinds = new int[256];
+    private int[] coordinates = new int[256 * 4];
+    private Color[] colors = new Color[256];
+    private Image[] images = new Image[256];
+    private long[] keys = new long[256];
+    // For each cell: the maximal depth of its primitives, the key of a primitive of that depth, and a bound of the
+    // depths of the primitives whose key is different.
+    private int columns;
+    private int rows;
+    private int[] topDepth;
+    private long[] topKey;
+    private int[] otherDepth;
+    // The images never share a key, since their order matters even if they are the same.
+    private long nextImageKey = -1;
+
+    /**
+     * Start recording the primitives that should be drawn on the given surface.
+     * @param surface the surface that the primitives are drawn on when the recorder is flushed.
+     */
+    public void begin(DrawSurface surface) {
+        this.target = surface;
+        this.color = null;
+        this.targetColor = null;
+        this.count = 0;
+        this.columns = Math.max(1, (surface.getWidth() + CELL_SIZE - 1) / CELL_SIZE);
+        this.rows = Math.max(1, (surface.getHeight() + CELL_SIZE - 1) / CELL_SIZE);
+        if (this.topDepth == null || this.topDepth.length < this.columns * this.rows) {
+            this.topDepth = new int[this.columns * this.rows];
+            this.topKey = new long[this.columns * this.rows];
+            this.otherDepth = new int[this.columns * this.rows];
+        }
+        this.clearCells();
+    }
+
+    /**
+     * Draw all the recorded primitives on the surface, grouped by their depth, kind and color.
+     */
+    public void flush() {
+        if (this.count == 0) {
+            return;
+        }
+        Arrays.sort(this.keys, 0, this.count);
+        int groupStart = 0;
+        while (groupStart < this.count) {
+            // The primitives of the same depth can be drawn in any order: start with the ones in the current color.
+            long depth = this.keys[groupStart] >>> DEPTH_SHIFT;
+            int groupEnd = groupStart;
+            int runStart = -1;
+            while (groupEnd < this.count && this.keys[groupEnd] >>> DEPTH_SHIFT == depth) {
+                if (runStart < 0 && this.targetColor != null && this.kinds[this.indexOf(groupEnd)] != DRAW_IMAGE
+                    && this.colors[this.indexOf(groupEnd)].equals(this.targetColor)) {
+                    runStart = groupEnd;
+                }
+                groupEnd++;
+            }
+            if (runStart < 0) {
+                this.drawRange(groupStart, groupEnd);
+            } else {
+                int runEnd = runStart;
+                long runColor = this.keys[runStart] & COLOR_MASK;
+                while (runEnd < groupEnd && (this.keys[runEnd] & COLOR_MASK) == runColor) {
+                    runEnd++;
+                }
+                this.drawRange(runStart, runEnd);
+                this.drawRange(groupStart, runStart);
+                this.drawRange(runEnd, groupEnd);
+            }
+            groupStart = groupEnd;
+        }
+        this.count = 0;
+        this.clearCells();
+    } // flush
+
+    /**
+     * @param i the position of a primitive in the sorted keys.
+     * @return the index of the primitive.
+     */
+    private int indexOf(int i) {
+        return (int) (this.keys[i] & (MAX_PRIMITIVES - 1));
+    }
+
+    /**
+     * Draw the primitives of the given range of the sorted keys on the target surface.
+     * @param from the position of the first primitive.
+     * @param to the position after the last primitive.
+     */
+    private void drawRange(int from, int to) {
+        for (int i = from; i < to; i++) {
+            int index = this.indexOf(i);
+            int c = index * 4;
+            int kind = this.kinds[index];
+            if (kind != DRAW_IMAGE) {
+                this.applyColor(this.colors[index]);
+            }
+            if (kind == FILL_RECTANGLE) {
+                this.target.fillRectangle(this.coordinates[c], this.coordinates[c + 1], this.coordinates[c + 2],
+                    this.coordinates[c + 3]);
+            } else if (kind == DRAW_RECTANGLE) {
+                this.target.drawRectangle(this.coordinates[c], this.coordinates[c + 1], this.coordinates[c + 2],
+                    this.coordinates[c + 3]);
+            } else if (kind == FILL_OVAL) {
+                this.target.fillOval(this.coordinates[c], this.coordinates[c + 1], this.coordinates[c + 2],
+                    this.coordinates[c + 3]);
+            } else if (kind == DRAW_OVAL) {
+                this.target.drawOval(this.coordinates[c], this.coordinates[c + 1], this.coordinates[c + 2],
+                    this.coordinates[c + 3]);
+            } else if (kind == DRAW_LINE) {
+                this.target.drawLine(this.coordinates[c], this.coordinates[c + 1], this.coordinates[c + 2],
+                    this.coordinates[c + 3]);
+            } else {
+                this.target.drawImage(this.coordinates[c], this.coordinates[c + 1], this.images[index]);
+                this.images[index] = null;
+            }
+        }
+    } // drawRange
+
+    /**
+     * Empty the cells of the overlaps.
+     */
+    private void clearCells() {
+        Arrays.fill(this.topDepth, -1);
+        Arrays.fill(this.otherDepth, -1);
+        Arrays.fill(this.topKey, Long.MIN_VALUE);
+    }
+
+    /**
+     * Set the color of the target surface, if it's not already set to it.
+     * @param c the color.
+     */
+    private void applyColor(Color c) {
+        if (c != null && !c.equals(this.targetColor)) {
+            this.target.setColor(c);
+            this.targetColor = c;
+        }
+    }
+
+    /**
+     * Record a primitive.
+     * @param kind the kind of the primitive.
+     * @param a the first coordinate of the primitive.
+     * @param b the second coordinate of the primitive.
+     * @param w the third coordinate of the primitive.
+     * @param h the fourth coordinate of the primitive.
+     * @param image the image of the primitive (if it's an image).
+     * @param minX the x value of the left edge of the pixels that the primitive covers.
+     * @param minY the y value of the upper edge of the pixels that the primitive covers.
+     * @param maxX the x value of the right edge of the pixels that the primitive covers (exclusive).
+     * @param maxY the y value of the lower edge of the pixels that the primitive covers (exclusive).
+     */
+    private void record(int kind, int a, int b, int w, int h, Image image, int minX, int minY, int maxX, int maxY) {
+        if (kind != DRAW_IMAGE && (this.color == null || this.color.getAlpha() != 255)) {
+            // A primitive that is blended with the pixels under it must be drawn in its order.
+            this.flush();
+            this.applyColor(this.color);
+            this.drawDirectly(kind, a, b, w, h);
+            return;
+        }
+        if (this.count == MAX_PRIMITIVES) {
+            this.flush();
+        }
+        if (this.count == this.kinds.length) {
+            int size = this.kinds.length * 2;
+            this.kinds = Arrays.copyOf(this.kinds, size);
+            this.coordinates = Arrays.copyOf(this.coordinates, size * 4);
+            this.colors = Arrays.copyOf(this.colors, size);
+            this.images = Arrays.copyOf(this.images, size);
+            this.keys = Arrays.copyOf(this.keys, size);
+        }
+        long overlapKey;
+        if (kind == DRAW_IMAGE) {
+            overlapKey = this.nextImageKey--;
+        } else {
+            overlapKey = ((long) kind << COLOR_BITS) | (this.color.getRGB() & 0xFFFFFF);
+        }
+        // The cells that the primitive covers.
+        int minColumn = Math.min(this.columns - 1, Math.max(0, Math.floorDiv(minX, CELL_SIZE)));
+        int maxColumn = Math.min(this.columns - 1, Math.max(0, Math.floorDiv(maxX - 1, CELL_SIZE)));
+        int minRow = Math.min(this.rows - 1, Math.max(0, Math.floorDiv(minY, CELL_SIZE)));
+        int maxRow = Math.min(this.rows - 1, Math.max(0, Math.floorDiv(maxY - 1, CELL_SIZE)));
+        // The primitive is drawn after all the earlier primitives with a different key that may overlap it.
+        int depth = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cell = row * this.columns + column;
+                int before = this.topKey[cell] == overlapKey ? this.otherDepth[cell] : this.topDepth[cell];
+                depth = Math.max(depth, before + 1);
+            }
+        }
+        if (depth > MAX_DEPTH) {
+            this.flush();
+            depth = 0;
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                this.addToCell(row * this.columns + column, depth, overlapKey);
+            }
+        }
+        int index = this.count;
+        this.kinds[index] = kind;
+        this.coordinates[index * 4] = a;
+        this.coordinates[index * 4 + 1] = b;
+        this.coordinates[index * 4 + 2] = w;
+        this.coordinates[index * 4 + 3] = h;
+        this.colors[index] = this.color;
+        this.images[index] = image;
+        long colorBits = kind == DRAW_IMAGE ? 0 : this.color.getRGB() & 0xFFFFFF;
+        this.keys[index] = ((long) depth << DEPTH_SHIFT)
+            | (colorBits << (KIND_BITS + INDEX_BITS)) | ((long) kind << INDEX_BITS) | index;
+        this.count++;
+    } // record
+
+    /**
+     * Add a primitive to the depths of a cell.
+     * @param cell the index of the cell.
+     * @param depth the depth of the primitive.
+     * @param overlapKey the key of the primitive.
+     */
+    private void addToCell(int cell, int depth, long overlapKey) {
+        if (depth > this.topDepth[cell]) {
+            if (overlapKey != this.topKey[cell]) {
+                this.otherDepth[cell] = this.topDepth[cell];
+                this.topKey[cell] = overlapKey;
+            }
+            this.topDepth[cell] = depth;
+        } else if (overlapKey != this.topKey[cell]) {
+            this.otherDepth[cell] = Math.max(this.otherDepth[cell], depth);
+        }
+    }
+
+    /**
+     * Draw a primitive on the target surface without recording it.
+     * @param kind the kind of the primitive.
+     * @param a the first coordinate of the primitive.
+     * @param b the second coordinate of the primitive.
+     * @param w the third coordinate of the primitive.
+     * @param h the fourth coordinate of the primitive.
+     */
+    private void drawDirectly(int kind, int a, int b, int w, int h) {
+        if (kind == FILL_RECTANGLE) {
+            this.target.fillRectangle(a, b, w, h);
+        } else if (kind == DRAW_RECTANGLE) {
+            this.target.drawRectangle(a, b, w, h);
+        } else if (kind == FILL_OVAL) {
+            this.target.fillOval(a, b, w, h);
+        } else if (kind == DRAW_OVAL) {
+            this.target.drawOval(a, b, w, h);
+        } else {
+            this.target.drawLine(a, b, w, h);
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return this.target.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return this.target.getHeight();
+    }
+
+    @Override
+    public void setColor(Color c) {
+        this.color = c;
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.record(DRAW_LINE, x1, y1, x2, y2, null, Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2) + 1,
+            Math.max(y1, y2) + 1);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        this.record(DRAW_OVAL, x, y, width, height, null, x, y, x + width + 1, y + height + 1);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        this.record(FILL_OVAL, x, y, width, height, null, x, y, x + width + 1, y + height + 1);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        this.record(DRAW_RECTANGLE, x, y, width, height, null, x, y, x + width + 1, y + height + 1);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        this.record(FILL_RECTANGLE, x, y, width, height, null, x, y, x + width, y + height);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        int width = image.getWidth(null);
+        int height = image.getHeight(null);
+        if (width < 0 || height < 0) {
+            // The size of the image is not known yet, so it's drawn in its order.
+            this.flush();
+            this.target.drawImage(x, y, image);
+            return;
+        }
+        this.record(DRAW_IMAGE, x, y, 0, 0, image, x, y, x + width, y + height);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.drawOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.fillOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        this.flush();
+        this.applyColor(this.color);
+        this.target.drawText(x, y, text, fontSize);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        this.flush();
+        this.applyColor(this.color);
+        this.target.drawPolygon(p);
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        this.flush();
+        this.applyColor(this.color);
+        this.target.fillPolygon(p);
+    }
+
+} // class BatchingDrawSurface
@@ -0,0 +1,221 @@
+package animation;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.util.Arrays;
+
+import biuoop.DrawSurface;
+
+/**
+ * The CommandBuffer class is a surface that records the commands that are drawn on it (in their order), so a frame
+ * can be drawn by one thread and drawn again on the screen by another thread. The buffer is reused: it's cleared
+ * before a frame is recorded on it. Each buffer of a FrameExchange has a slot of its own, so the images that are
+ * drawn on the frames can be kept by the slots of the frames that draw them (an image of a slot isn't used by the
+ * frames of the other slots, that the render thread may still be drawing).
+ */
+public class CommandBuffer implements DrawSurface {
+    // The kinds of the commands.
+    private static final int SET_COLOR = 0;
+    private static final int DRAW_LINE = 1;
+    private static final int DRAW_OVAL = 2;
+    private static final int FILL_OVAL = 3;
+    private static final int DRAW_RECTANGLE = 4;
+    private static final int FILL_RECTANGLE = 5;
+    private static final int DRAW_IMAGE = 6;
+    private static final int DRAW_CIRCLE = 7;
+    private static final int FILL_CIRCLE = 8;
+    private static final int DRAW_TEXT = 9;
+    private static final int DRAW_POLYGON = 10;
+    private static final int FILL_POLYGON = 11;
+    // Declare the members of the class.
+    private int width;
+    private int height;
+    private int slot;
+    private int count = 0;
+    private int[] kinds = new int[256];
+    private int[] values = new int[256 * 4];
+    // The colors, images, texts and polygons of the commands (by the index of the command).
+    private Object[] objects = new Object[256];
+
+    /**
+     * Constructor.
+     * @param width the width of the surface.
+     * @param height the height of the surface.
+     */
+    public CommandBuffer(int width, int height) {
+        this(width, height, -1);
+    }
+
+    /**
+     * Constructor.
+     * @param width the width of the surface.
+     * @param height the height of the surface.
+     * @param slot the slot of the buffer in its FrameExchange (-1 if it's not in an exchange).
+     */
+    public CommandBuffer(int width, int height, int slot) {
+        this.width = width;
+        this.height = height;
+        this.slot = slot;
+    }
+
+    /**
+     * @return the slot of the buffer in its FrameExchange (-1 if it's not in an exchange).
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+
+    /**
+     * Remove all the commands from the buffer.
+     */
+    public void clear() {
+        Arrays.fill(this.objects, 0, this.count, null);
+        this.count = 0;
+    }
+
+    /**
+     * Draw all the commands of the buffer on the given surface, in their order.
+     * @param d a surface you can draw on.
+     */
+    public void replay(DrawSurface d) {
+        for (int i = 0; i < this.count; i++) {
+            int v = i * 4;
+            switch (this.kinds[i]) {
+                case SET_COLOR:
+                    d.setColor((Color) this.objects[i]);
+                    break;
+                case DRAW_LINE:
+                    d.drawLine(this.values[v], this.values[v + 1], this.values[v + 2], this.values[v + 3]);
+                    break;
+                case DRAW_OVAL:
+                    d.drawOval(this.values[v], this.values[v + 1], this.values[v + 2], this.values[v + 3]);
+                    break;
+                case FILL_OVAL:
+                    d.fillOval(this.values[v], this.values[v + 1], this.values[v + 2], this.values[v + 3]);
+                    break;
+                case DRAW_RECTANGLE:
+                    d.drawRectangle(this.values[v], this.values[v + 1], this.values[v + 2], this.values[v + 3]);
+                    break;
+                case FILL_RECTANGLE:
+                    d.fillRectangle(this.values[v], this.values[v + 1], this.values[v + 2], this.values[v + 3]);
+                    break;
+                case DRAW_IMAGE:
+                    d.drawImage(this.values[v], this.values[v + 1], (Image) this.objects[i]);
+                    break;
+                case DRAW_CIRCLE:
+                    d.drawCircle(this.values[v], this.values[v + 1], this.values[v + 2]);
+                    break;
+                case FILL_CIRCLE:
+                    d.fillCircle(this.values[v], this.values[v + 1], this.values[v + 2]);
+                    break;
+                case DRAW_TEXT:
+                    d.drawText(this.values[v], this.values[v + 1], (String) this.objects[i], this.values[v + 2]);
+                    break;
+                case DRAW_POLYGON:
+                    d.drawPolygon((Polygon) this.objects[i]);
+                    break;
+                default:
+                    d.fillPolygon((Polygon) this.objects[i]);
+                    break;
+            }
+        }
+    } // replay
+
+    /**
+     * Record a command.
+     * @param kind the kind of the command.
+     * @param a the first value of the command.
+     * @param b the second value of the command.
+     * @param c the third value of the command.
+     * @param e the fourth value of the command.
+     * @param object the color, image, text or polygon of the command.
+     */
+    private void record(int kind, int a, int b, int c, int e, Object object) {
+        if (this.count == this.kinds.length) {
+            this.kinds = Arrays.copyOf(this.kinds, this.count * 2);
+            this.values = Arrays.copyOf(this.values, this.count * 2 * 4);
+            this.objects = Arrays.copyOf(this.objects, this.count * 2);
+        }
+        int v = this.count * 4;
+        this.kinds[this.count] = kind;
+        this.values[v] = a;
+        this.values[v + 1] = b;
+        this.values[v + 2] = c;
+        this.values[v + 3] = e;
+        this.objects[this.count] = object;
+        this.count++;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.record(SET_COLOR, 0, 0, 0, 0, color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.record(DRAW_LINE, x1, y1, x2, y2, null);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        this.record(DRAW_OVAL, x, y, w, h, null);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        this.record(FILL_OVAL, x, y, w, h, null);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        this.record(DRAW_RECTANGLE, x, y, w, h, null);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        this.record(FILL_RECTANGLE, x, y, w, h, null);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        this.record(DRAW_IMAGE, x, y, 0, 0, image);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.record(DRAW_CIRCLE, x, y, r, 0, null);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.record(FILL_CIRCLE, x, y, r, 0, null);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        this.record(DRAW_TEXT, x, y, fontSize, 0, text);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        // The polygon is copied, since the sprite may change it after the frame is recorded.
+        this.record(DRAW_POLYGON, 0, 0, 0, 0, new Polygon(p.xpoints, p.ypoints, p.npoints));
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        this.record(FILL_POLYGON, 0, 0, 0, 0, new Polygon(p.xpoints, p.ypoints, p.npoints));
+    }
+
+} // class CommandBuffer
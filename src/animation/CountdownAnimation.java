@@ -1,7 +1,8 @@
 package animation;
 import arkanoidgame.Counter;
+import arkanoidgame.SimpleCounter;
 import biuoop.DrawSurface;
-import sprites.Colors;
+import sprites.Palette;
 import sprites.SpriteCollection;
 
 /**
@@ -12,12 +13,15 @@ import sprites.SpriteCollection;
 public class CountdownAnimation implements Animation {
     // Declare the members of the class.
     private boolean stop;
-    private long startTimeMillis;
     private long passedTimeMillis;
     private long animationMillis;
     private int countFrom;
     private Counter currentNumber;
     private SpriteCollection gameScreen;
+    // The cycling color of the numbers is chosen by the time that has passed.
+    private int colorEntity = Palette.newEntity();
+    // The images of the numbers in each of the rainbow colors (taken from the cache of the texts when first drawn).
+    private TextImage[] numberTexts;
 
     /**
      * constructor.
@@ -29,40 +33,39 @@ public class CountdownAnimation implements Animation {
         this.stop = false;
         // The number of milliseconds that the animation will be displayed for. 1 second = 1000 milliseconds.
         this.animationMillis = (long) numOfSeconds * 1000;
-        // Save the time the animation started to calculate when the animation should stop.
-        this.startTimeMillis = System.currentTimeMillis();
         // The time that has passed in milliseconds since the first time that CountdownAnimation was called.
         this.passedTimeMillis = 0;
         this.countFrom = countFrom;
         // The current number in the countdown.
-        this.currentNumber = new Counter(countFrom);
+        this.currentNumber = new SimpleCounter(countFrom);
         this.gameScreen = gameScreen;
+        this.numberTexts = new TextImage[(countFrom + 1) * Palette.rainbowSize()];
     }
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
         /*
          * The animation should be displayed for the given number of seconds.
-         * The System.currentTimeMillis() method is used to know when the animation has started and when it should stop.
-         * Each function call saves the startTimeMillis, calculates the differences of milliseconds between the calls,
-         * and adds it to passedTimeMillis.
+         * The time of each frame (dt, in seconds) is added to passedTimeMillis, so the countdown follows the time of
+         * the animation runner (that is simulated when the game runs without a screen).
          */
-        this.passedTimeMillis = this.passedTimeMillis + System.currentTimeMillis() - this.startTimeMillis;
-        this.startTimeMillis = System.currentTimeMillis();
+        this.passedTimeMillis = this.passedTimeMillis + Math.round(dt * 1000);
         int textSize = 100;
-        // Colors is an object that is in charge of the colors' creating.
-        Colors colors = new Colors();
         // Each number of the countdown will appear on the screen for (num Of milliseconds / countFrom) milliseconds.
         long millisForNumber = this.animationMillis / countFrom;
         // The index of the current number (in an ascending counting).
         int numberIndex = (countFrom - currentNumber.getValue()) + 1;
         // Draw all the sprites of the game screen.
         this.gameScreen.drawAllOn(d);
-        d.setColor(colors.setRainbowColor(-1));
-        // Draw the current number in the countdown.
-        d.drawText(d.getWidth() / 2 - 20, d.getHeight() / 2 + 20, Integer.toString(currentNumber.getValue()), textSize);
-        // Add the difference of the milliseconds between the calls to passedTimeMillis.
-        this.passedTimeMillis = this.passedTimeMillis + (System.currentTimeMillis() - startTimeMillis);
+        // Draw the current number in the countdown (there are only countFrom numbers in 7 colors, so their images are
+        // kept).
+        int colorIndex = Palette.cycleIndex(this.colorEntity, this.passedTimeMillis / 1000.0);
+        int textIndex = currentNumber.getValue() * Palette.rainbowSize() + colorIndex;
+        if (this.numberTexts[textIndex] == null) {
+            this.numberTexts[textIndex] = TextCache.get(Integer.toString(currentNumber.getValue()), textSize,
+                Palette.rainbow(colorIndex));
+        }
+        this.numberTexts[textIndex].drawOn(d, d.getWidth() / 2 - 20, d.getHeight() / 2 + 20);
         // If the time limit of the current number has passed, continue to the next number.
         if (this.passedTimeMillis >= millisForNumber * numberIndex) {
             currentNumber.decrease(1);
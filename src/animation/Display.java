@@ -0,0 +1,44 @@
+package animation;
+
+import biuoop.DialogManager;
+import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
+
+/**
+ * The Display interface represents the platform that the animations are displayed on: it gives a surface to draw
+ * each frame on and shows it, and it gives the keyboard and the dialogs of the player.
+ */
+public interface Display {
+    /**
+     * @return a new surface to draw the next frame on.
+     */
+    DrawSurface getDrawSurface();
+
+    /**
+     * Show the frame that was drawn on the given surface.
+     * @param d the surface of the frame.
+     */
+    void show(DrawSurface d);
+
+    /**
+     * @return the keyboard sensor of the display.
+     */
+    KeyboardSensor getKeyboardSensor();
+
+    /**
+     * @return the dialog manager of the display.
+     */
+    DialogManager getDialogManager();
+
+    /**
+     * A display that runs in real time is shown to a player, so the animations are run in the speed of the clock. The
+     * animations of a display that isn't run in real time are run as fast as possible, and their time is simulated.
+     * @return true if the display runs in real time, false otherwise.
+     */
+    boolean isRealTime();
+
+    /**
+     * Close the display.
+     */
+    void close();
+}
@@ -1,13 +1,11 @@
 package animation;
 
 import java.awt.*;
-import java.io.IOException;
-import java.util.Objects;
 
 import biuoop.DrawSurface;
-import sprites.Colors;
+import sprites.Palette;
 
-import javax.imageio.ImageIO;
+import readingfiles.ImageCache;
 
 import static levels.GameLevel.SURFACE_HEIGHT;
 import static levels.GameLevel.SURFACE_WIDTH;
@@ -20,6 +18,15 @@ public class EndScreenAnimation implements Animation {
     private boolean stop;
     private boolean winning;
     private int score;
+    // The images of the texts of the screen (they don't change).
+    private TextImage titleText;
+    private TextImage scoreText;
+    private TextImage continueText;
+    // The images of the winning title in each of the rainbow colors.
+    private TextImage[] winningTexts = new TextImage[Palette.rainbowSize()];
+    // The cycling color of the winning title is chosen by the time that the screen is displayed.
+    private int colorEntity = Palette.newEntity();
+    private double displayedTime = 0;
 
     /**
      * Constructor.
@@ -37,28 +44,32 @@ public class EndScreenAnimation implements Animation {
     public void doOneFrame(DrawSurface d, double dt) {
         //  If the game was over as a result of a winning, draw a winning screen.
         if (winning) {
-            Image winningBackgroundImage = null;
-            try {
-                winningBackgroundImage = ImageIO.read(
-                        Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResourceAsStream(
-                                "background_images/fireworks.jpg")));
-            } catch (IOException e) {
-            }
+            Image winningBackgroundImage = ImageCache.get("background_images/fireworks.jpg");
             d.drawImage(0, 0,  winningBackgroundImage);
-            Colors colors = new Colors();
-            d.setColor(colors.setRainbowColor(-1));
-            d.drawText(220, 200, "You Win!", 90);
-            d.setColor(Color.darkGray);
+            // The color of the title cycles through the 7 rainbow colors, so an image is kept for each of them.
+            this.displayedTime += dt;
+            int colorIndex = Palette.cycleIndex(this.colorEntity, this.displayedTime);
+            if (this.winningTexts[colorIndex] == null) {
+                this.winningTexts[colorIndex] = TextCache.get("You Win!", 90, Palette.rainbow(colorIndex));
+            }
+            this.winningTexts[colorIndex].drawOn(d, 220, 200);
         // Else - the game was over as a result of a loss - draw a game over screen.
         } else {
             d.setColor(Color.black);
             d.fillRectangle(0, 0, SURFACE_WIDTH, SURFACE_HEIGHT);
-            d.setColor(Color.white);
-            d.drawText(170, 200, "Game Over", 90);
+            if (this.titleText == null) {
+                this.titleText = TextCache.get("Game Over", 90, Color.white);
+            }
+            this.titleText.drawOn(d, 170, 200);
+        }
+        if (this.scoreText == null) {
+            Color textColor = winning ? Color.darkGray : Color.white;
+            this.scoreText = TextCache.get("Your score is: " + score, 40, textColor);
+            this.continueText = TextCache.get("Press \"c\" to continue", 30, textColor);
         }
-        d.drawText(240, 330, "Your score is: " + score, 40);
+        this.scoreText.drawOn(d, 240, 330);
         // If "c" key is pressed, the animation ends.
-        d.drawText(260, 550, "Press \"c\" to continue", 30);
+        this.continueText.drawOn(d, 260, 550);
     }
 
     @Override
@@ -0,0 +1,69 @@
+package animation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The FrameExchange class passes recorded frames from the thread of the game logic to the render thread without
+ * locks (a triple buffer). The game thread records a frame on the back buffer and publishes it, the render thread
+ * takes the latest published frame as its front buffer, and the third buffer is the one in between. Neither thread
+ * waits for the other: frames that are published faster than they are drawn are skipped.
+ */
+public class FrameExchange {
+    // The number of the buffers (and so the number of the frames that may be drawing the same images at once).
+    public static final int BUFFERS = 3;
+    // The bit of the middle index that marks a frame that wasn't taken yet.
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+    // Declare the members of the class.
+    private CommandBuffer[] buffers = new CommandBuffer[BUFFERS];
+    // The back buffer is used only by the game thread, and the front buffer only by the render thread.
+    private int back = 0;
+    private int front = 1;
+    private AtomicInteger middle = new AtomicInteger(2);
+
+    /**
+     * Constructor.
+     * @param width the width of the frames.
+     * @param height the height of the frames.
+     */
+    public FrameExchange(int width, int height) {
+        for (int i = 0; i < this.buffers.length; i++) {
+            this.buffers[i] = new CommandBuffer(width, height, i);
+        }
+    }
+
+    /**
+     * @return the buffer that the next frame should be recorded on (called only by the game thread).
+     */
+    public CommandBuffer back() {
+        return this.buffers[this.back];
+    }
+
+    /**
+     * Publish the frame that was recorded on the back buffer (called only by the game thread).
+     */
+    public void publish() {
+        this.back = this.middle.getAndSet(this.back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Take the latest published frame as the front buffer, if a new frame was published (called only by the render
+     * thread).
+     * @return true if there is a new front buffer, false otherwise.
+     */
+    public boolean takeLatest() {
+        if ((this.middle.get() & FRESH) == 0) {
+            return false;
+        }
+        this.front = this.middle.getAndSet(this.front) & INDEX_MASK;
+        return true;
+    }
+
+    /**
+     * @return the buffer of the latest frame that was taken (called only by the render thread).
+     */
+    public CommandBuffer front() {
+        return this.buffers[this.front];
+    }
+
+} // class FrameExchange
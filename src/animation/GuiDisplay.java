@@ -0,0 +1,53 @@
+package animation;
+
+import biuoop.DialogManager;
+import biuoop.DrawSurface;
+import biuoop.GUI;
+import biuoop.KeyboardSensor;
+
+/**
+ * The GuiDisplay class displays the animations in a window, using the GUI of biuoop.
+ */
+public class GuiDisplay implements Display {
+    // Declare the members of the class.
+    private GUI gui;
+
+    /**
+     * Constructor.
+     * @param gui a Graphical User Interface that the animations are displayed on.
+     */
+    public GuiDisplay(GUI gui) {
+        this.gui = gui;
+    }
+
+    @Override
+    public DrawSurface getDrawSurface() {
+        return this.gui.getDrawSurface();
+    }
+
+    @Override
+    public void show(DrawSurface d) {
+        this.gui.show(d);
+    }
+
+    @Override
+    public KeyboardSensor getKeyboardSensor() {
+        return this.gui.getKeyboardSensor();
+    }
+
+    @Override
+    public DialogManager getDialogManager() {
+        return this.gui.getDialogManager();
+    }
+
+    @Override
+    public boolean isRealTime() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        this.gui.close();
+    }
+
+} // class GuiDisplay
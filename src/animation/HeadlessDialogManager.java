@@ -0,0 +1,55 @@
+package animation;
+
+import biuoop.DialogManager;
+
+/**
+ * The HeadlessDialogManager class answers the dialogs without showing them: a question is answered with a fixed
+ * answer, and a yes/no question is answered with a fixed choice.
+ */
+public class HeadlessDialogManager implements DialogManager {
+    // Declare the members of the class.
+    private String answer = "headless";
+    private boolean confirm = true;
+
+    /**
+     * @param questionAnswer the answer to the questions (for example, the name of the player).
+     */
+    public void setAnswer(String questionAnswer) {
+        this.answer = questionAnswer;
+    }
+
+    /**
+     * @param confirmation the answer to the yes/no questions and the confirmations.
+     */
+    public void setConfirm(boolean confirmation) {
+        this.confirm = confirmation;
+    }
+
+    @Override
+    public String showQuestionDialog(String title, String message, String defaultValue) {
+        return this.answer;
+    }
+
+    @Override
+    public void showInformationDialog(String title, String message) {
+    }
+
+    @Override
+    public void showWarningDialog(String title, String message) {
+    }
+
+    @Override
+    public void showErrorDialog(String title, String message) {
+    }
+
+    @Override
+    public boolean showConfirmationDialog(String title, String message) {
+        return this.confirm;
+    }
+
+    @Override
+    public boolean showYesNoDialog(String title, String message) {
+        return this.confirm;
+    }
+
+} // class HeadlessDialogManager
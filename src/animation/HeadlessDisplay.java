@@ -0,0 +1,89 @@
+package animation;
+
+import java.awt.image.BufferedImage;
+
+import biuoop.DialogManager;
+import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
+
+/**
+ * The HeadlessDisplay class runs the animations without a screen (for simulations, tests and benchmarks). The frames
+ * are either drawn on an image that is kept off the screen, or not drawn at all, and the animations are run as fast
+ * as possible (not in real time). The keys of the keyboard are pressed by the program, and the dialogs return fixed
+ * answers.
+ */
+public class HeadlessDisplay implements Display {
+    // Declare the members of the class.
+    private int width;
+    private int height;
+    private BufferedImage frame;
+    private HeadlessKeyboard keyboard = new HeadlessKeyboard();
+    private HeadlessDialogManager dialogManager = new HeadlessDialogManager();
+    private long framesShown = 0;
+
+    /**
+     * Constructor.
+     * @param width the width of the frames.
+     * @param height the height of the frames.
+     * @param drawFrames true if the frames should be drawn on an image, false if the drawing should be skipped.
+     */
+    public HeadlessDisplay(int width, int height, boolean drawFrames) {
+        this.width = width;
+        this.height = height;
+        if (drawFrames) {
+            this.frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+    }
+
+    @Override
+    public DrawSurface getDrawSurface() {
+        if (this.frame == null) {
+            return new NullDrawSurface(this.width, this.height);
+        }
+        ImageDrawSurface surface = new ImageDrawSurface(this.frame);
+        surface.clear();
+        return surface;
+    }
+
+    @Override
+    public void show(DrawSurface d) {
+        if (d instanceof ImageDrawSurface) {
+            ((ImageDrawSurface) d).dispose();
+        }
+        this.framesShown++;
+    }
+
+    /**
+     * @return the image of the last frame that was drawn, or null if the frames are not drawn.
+     */
+    public BufferedImage getLastFrame() {
+        return this.frame;
+    }
+
+    /**
+     * @return the number of the frames that were shown.
+     */
+    public long getFramesShown() {
+        return this.framesShown;
+    }
+
+    @Override
+    public HeadlessKeyboard getKeyboardSensor() {
+        return this.keyboard;
+    }
+
+    @Override
+    public HeadlessDialogManager getDialogManager() {
+        return this.dialogManager;
+    }
+
+    @Override
+    public boolean isRealTime() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+    }
+
+} // class HeadlessDisplay
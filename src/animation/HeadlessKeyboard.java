@@ -0,0 +1,36 @@
+package animation;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * The HeadlessKeyboard class is a keyboard sensor whose keys are pressed and released by the program.
+ */
+public class HeadlessKeyboard implements KeyboardSensor {
+    // Declare the members of the class.
+    private Set<String> pressedKeys = new HashSet<>();
+
+    /**
+     * Press the given key (it stays pressed until it's released).
+     * @param key the key.
+     */
+    public synchronized void press(String key) {
+        this.pressedKeys.add(key);
+    }
+
+    /**
+     * Release the given key.
+     * @param key the key.
+     */
+    public synchronized void release(String key) {
+        this.pressedKeys.remove(key);
+    }
+
+    @Override
+    public synchronized boolean isPressed(String key) {
+        return this.pressedKeys.contains(key);
+    }
+
+} // class HeadlessKeyboard
@@ -2,14 +2,12 @@ package animation;
 
 import java.awt.Color;
 import java.awt.Image;
-import java.io.IOException;
-import java.util.Objects;
 
 import biuoop.DrawSurface;
 import highscores.HighScoresTable;
 import highscores.ScoreInfo;
 
-import javax.imageio.ImageIO;
+import readingfiles.ImageCache;
 
 /**
  * The HighScoresAnimation class represents the animation of the current highest scores of the players.
@@ -17,6 +15,15 @@ import javax.imageio.ImageIO;
 public class HighScoresAnimation implements Animation {
     // Declare the members of the class.
     private HighScoresTable highScoresTable;
+    // The images of the texts of the titles (they don't change).
+    private TextImage nameTitle;
+    private TextImage scoreTitle;
+    private TextImage backText;
+    // The images of the texts of the rows, and the scores that they show (a row is drawn again when its score
+    // changes).
+    private TextImage[] nameTexts = new TextImage[0];
+    private TextImage[] scoreTexts = new TextImage[0];
+    private ScoreInfo[] shownScores = new ScoreInfo[0];
 
     /**
      * Constructor.
@@ -29,43 +36,47 @@ public class HighScoresAnimation implements Animation {
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
         // Draw the high scores table.
-        Image backgroundImage = null;
-        try {
-            backgroundImage = ImageIO.read(Objects.requireNonNull(
-                    ClassLoader.getSystemClassLoader().getResourceAsStream("background_images/blocks.jpg")));
-        } catch (IOException e) {
-        }
+        Image backgroundImage = ImageCache.get("background_images/blocks.jpg");
         d.drawImage(0, 0,  backgroundImage);
 
-        Image highScoresImage = null;
-        try {
-            highScoresImage = ImageIO.read(Objects.requireNonNull(
-                    ClassLoader.getSystemClassLoader().getResourceAsStream("general_images/HighScores.jpg")));
-        } catch (IOException e) {
-        }
+        Image highScoresImage = ImageCache.get("general_images/HighScores.jpg");
         d.drawImage(70, 30,  highScoresImage);
 
         d.setColor(Color.darkGray);
         d.fillRectangle(130, 175, 550, 330);
-        d.setColor(Color.cyan);
         ScoreInfo currentScoreInfo;
         int width = 170;
         int height = 220;
-        d.drawText(width, height, "Player Name", 32);
-        d.drawText(width + 390, height, "Score", 32);
-        d.setColor(Color.cyan);
+        if (this.nameTitle == null) {
+            this.nameTitle = TextCache.get("Player Name", 32, Color.cyan);
+            this.scoreTitle = TextCache.get("Score", 32, Color.cyan);
+            this.backText = TextCache.get("Press space to back to the main menu", 30, Color.cyan);
+        }
+        this.nameTitle.drawOn(d, width, height);
+        this.scoreTitle.drawOn(d, width + 390, height);
         width += 10;
         height += 10;
-        for (int i = 0; i < this.highScoresTable.size(); i++) {
+        int rows = this.highScoresTable.size();
+        if (this.shownScores.length != rows) {
+            this.nameTexts = new TextImage[rows];
+            this.scoreTexts = new TextImage[rows];
+            this.shownScores = new ScoreInfo[rows];
+        }
+        for (int i = 0; i < rows; i++) {
             height = height + 50;
             currentScoreInfo = this.highScoresTable.getHighScores().get(i);
             if (currentScoreInfo.getScore() < 0) {
                 continue;
             }
-            d.drawText(width, height, currentScoreInfo.getName(), 26);
-            d.drawText(width + 390, height, Integer.toString(currentScoreInfo.getScore()), 26);
+            if (this.shownScores[i] != currentScoreInfo) {
+                this.nameTexts[i] = TextCache.get(currentScoreInfo.getName(), 26, Color.cyan);
+                this.scoreTexts[i] = TextCache.get(Integer.toString(currentScoreInfo.getScore()), 26, Color.cyan);
+                this.shownScores[i] = currentScoreInfo;
+            }
+            this.nameTexts[i].drawOn(d, width, height);
+            this.scoreTexts[i].drawOn(d, width + 390, height);
         }
-        d.drawText(150, 560, "Press space to back to the main menu", 30);
+        this.backText.drawOn(d, 150, 560);
     }
 
     @Override
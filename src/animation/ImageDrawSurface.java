@@ -0,0 +1,145 @@
+package animation;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.image.BufferedImage;
+
+import biuoop.DrawSurface;
+
+/**
+ * The ImageDrawSurface class is a surface that draws directly on an image (instead of on the screen), so the things
+ * that are drawn on it once can be drawn on the screen again and again as a single image. It draws the shapes and the
+ * texts the same way that the surface of the GUI draws them.
+ */
+public class ImageDrawSurface implements DrawSurface {
+    // Declare the members of the class.
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private Font baseFont;
+
+    /**
+     * Constructor.
+     * @param image the image that should be drawn on.
+     */
+    public ImageDrawSurface(BufferedImage image) {
+        this.image = image;
+        this.graphics = image.createGraphics();
+        this.baseFont = this.graphics.getFont();
+    }
+
+    /**
+     * Clear the whole image (make it transparent).
+     */
+    public void clear() {
+        Composite composite = this.graphics.getComposite();
+        this.graphics.setComposite(AlphaComposite.Clear);
+        this.graphics.fillRect(0, 0, this.image.getWidth(), this.image.getHeight());
+        this.graphics.setComposite(composite);
+    }
+
+    /**
+     * Copy a rectangle of the given image to the same rectangle of this image (replacing its pixels).
+     * @param source the image that should be copied (at least as big as this image).
+     * @param x the x value of the upper left point of the rectangle.
+     * @param y the y value of the upper left point of the rectangle.
+     * @param width the width of the rectangle.
+     * @param height the height of the rectangle.
+     */
+    public void copyArea(BufferedImage source, int x, int y, int width, int height) {
+        int minX = Math.max(0, x);
+        int minY = Math.max(0, y);
+        int maxX = Math.min(this.image.getWidth(), x + width);
+        int maxY = Math.min(this.image.getHeight(), y + height);
+        if (minX >= maxX || minY >= maxY) {
+            return;
+        }
+        Composite composite = this.graphics.getComposite();
+        this.graphics.setComposite(AlphaComposite.Src);
+        this.graphics.drawImage(source, minX, minY, maxX, maxY, minX, minY, maxX, maxY, null);
+        this.graphics.setComposite(composite);
+    }
+
+    /**
+     * Release the resources of the surface (nothing can be drawn on it after that).
+     */
+    public void dispose() {
+        this.graphics.dispose();
+    }
+
+    @Override
+    public int getWidth() {
+        return this.image.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return this.image.getHeight();
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.graphics.setColor(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.graphics.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        this.graphics.drawOval(x, y, width, height);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        this.graphics.fillOval(x, y, width, height);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+        this.graphics.drawRect(x, y, width, height);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+        this.graphics.fillRect(x, y, width, height);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image img) {
+        this.graphics.drawImage(img, x, y, null);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.graphics.drawOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.graphics.fillOval(x - r, y - r, r * 2, r * 2);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        this.graphics.setFont(new Font(this.baseFont.getFontName(), this.baseFont.getStyle(), fontSize));
+        this.graphics.drawString(text, x, y);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        this.graphics.drawPolygon(p);
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        this.graphics.fillPolygon(p);
+    }
+
+} // class ImageDrawSurface
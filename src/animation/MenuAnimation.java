@@ -5,12 +5,10 @@ import biuoop.KeyboardSensor;
 import menu.Menu;
 import menu.Task;
 
-import javax.imageio.ImageIO;
+import readingfiles.ImageCache;
 import java.awt.*;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * The MenuAnimation class represents a menu animation. The menu is a screen stating a list of several options that the
@@ -44,21 +42,11 @@ public class MenuAnimation<T> implements Menu<T> {
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
         // Draw the primary screen of the menu.
-        Image backgroundImage = null;
-        try {
-            backgroundImage = ImageIO.read(Objects.requireNonNull(
-                    ClassLoader.getSystemClassLoader().getResourceAsStream("background_images/blocks.jpg")));
-        } catch (IOException e) {
-        }
+        Image backgroundImage = ImageCache.get("background_images/blocks.jpg");
         d.drawImage(0, 0, backgroundImage);
         d.setColor(Color.cyan);
 
-        Image arkanoidImage = null;
-        try {
-             arkanoidImage = ImageIO.read(Objects.requireNonNull(
-                     ClassLoader.getSystemClassLoader().getResourceAsStream("general_images/Arkanoid.jpg")));
-        } catch (IOException e) {
-        }
+        Image arkanoidImage = ImageCache.get("general_images/Arkanoid.jpg");
         d.drawImage(80, 80,  arkanoidImage);
 
         for (int i = 0; i < this.keys.size(); i++) {
@@ -70,11 +58,7 @@ public class MenuAnimation<T> implements Menu<T> {
         for (int i = 0; i < returnValues.size(); i++) {
             if (keyboard.isPressed(this.keys.get(i))) {
                 this.stop = true;
-                try {
-                    backgroundImage = ImageIO.read(Objects.requireNonNull(
-                            ClassLoader.getSystemClassLoader().getResourceAsStream("background_images/blocks.jpg")));
-                } catch (IOException e) {
-                }
+                backgroundImage = ImageCache.get("background_images/blocks.jpg");
                 d.drawImage(0, 0, backgroundImage);
                 status = this.returnValues.get(i).run();
                 break;
@@ -0,0 +1,86 @@
+package animation;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+
+import biuoop.DrawSurface;
+
+/**
+ * The NullDrawSurface class is a surface that ignores everything that is drawn on it (only its size is known), for
+ * running the animations without drawing them.
+ */
+public class NullDrawSurface implements DrawSurface {
+    // Declare the members of the class.
+    private int width;
+    private int height;
+
+    /**
+     * Constructor.
+     * @param width the width of the surface.
+     * @param height the height of the surface.
+     */
+    public NullDrawSurface(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+    }
+
+} // class NullDrawSurface
@@ -2,10 +2,8 @@ package animation;
 
 import biuoop.DrawSurface;
 
-import javax.imageio.ImageIO;
+import readingfiles.ImageCache;
 import java.awt.*;
-import java.io.IOException;
-import java.util.Objects;
 
 /**
  * The PauseScreenAnimation is an animation displayed when the game is paused.
@@ -25,12 +23,7 @@ public class PauseScreenAnimation implements Animation {
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
         // Draw the pause screen.
-        Image backgroundImage = null;
-        try {
-            backgroundImage = ImageIO.read(Objects.requireNonNull(
-                    ClassLoader.getSystemClassLoader().getResourceAsStream("background_images/blocks.jpg")));
-        } catch (IOException e) {
-        }
+        Image backgroundImage = ImageCache.get("background_images/blocks.jpg");
         d.drawImage(0, 0,  backgroundImage);
         d.setColor(Color.cyan);
         // If "c" key is pressed, the animation ends.
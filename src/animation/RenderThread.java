@@ -0,0 +1,78 @@
+package animation;
+
+import java.util.concurrent.locks.LockSupport;
+
+import biuoop.DrawSurface;
+
+/**
+ * The RenderThread class draws the frames that the game thread records on the screen, in a thread of its own, so
+ * a slow drawing of a frame doesn't delay the steps of the game. The frames are taken from a FrameExchange, and
+ * the thread waits (without a lock) until a new frame is published.
+ */
+public class RenderThread implements Runnable {
+    // Declare the members of the class.
+    private Display display;
+    private FrameExchange frames;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Constructor.
+     * @param display the display that the frames are displayed on.
+     * @param frames the exchange that the frames are taken from.
+     */
+    public RenderThread(Display display, FrameExchange frames) {
+        this.display = display;
+        this.frames = frames;
+    }
+
+    /**
+     * Start drawing the published frames (the thread doesn't keep the program alive).
+     */
+    public void start() {
+        this.running = true;
+        this.thread = new Thread(this, "render");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Wake the thread up, since a new frame was published.
+     */
+    public void frameReady() {
+        LockSupport.unpark(this.thread);
+    }
+
+    /**
+     * Stop drawing, and wait until the thread finishes the frame that it's drawing.
+     */
+    public void stop() {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+        boolean interrupted = false;
+        while (this.thread.isAlive()) {
+            try {
+                this.thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (this.running) {
+            if (this.frames.takeLatest()) {
+                DrawSurface d = this.display.getDrawSurface();
+                this.frames.front().replay(d);
+                this.display.show(d);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+} // class RenderThread
@@ -0,0 +1,96 @@
+package animation;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+import biuoop.DialogManager;
+import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
+import readingfiles.ImageCache;
+
+/**
+ * The ScaledDisplay class displays the animations on a display of any size, while the animations keep drawing on a
+ * surface of a fixed (logical) size. Each frame is drawn on an image of the logical size, and when it's shown, the
+ * image is scaled once to the size of the display, by a transform that is computed once (the aspect ratio is kept,
+ * and the rest of the display stays black). So the sprites don't know the size of the display, and a large display
+ * costs a single scaled copy of the frame.
+ */
+public class ScaledDisplay implements Display {
+    // Declare the members of the class.
+    private Display display;
+    private BufferedImage frame;
+    private AffineTransform transform;
+    // The scaled frames alternate, since the display may still be showing the previous one.
+    private BufferedImage[] scaledFrames = new BufferedImage[2];
+    private int current = 0;
+
+    /**
+     * Constructor.
+     * @param display the display that the scaled frames are shown on.
+     * @param logicalWidth the width of the surface that the animations draw on.
+     * @param logicalHeight the height of the surface that the animations draw on.
+     */
+    public ScaledDisplay(Display display, int logicalWidth, int logicalHeight) {
+        this.display = display;
+        this.frame = ImageCache.createCompatibleImage(logicalWidth, logicalHeight, true);
+        DrawSurface d = display.getDrawSurface();
+        int width = d.getWidth();
+        int height = d.getHeight();
+        // Scale the frame as much as it fits in the display, and put it in the middle.
+        double scale = Math.min((double) width / logicalWidth, (double) height / logicalHeight);
+        this.transform = new AffineTransform();
+        this.transform.translate(Math.floor((width - logicalWidth * scale) / 2),
+            Math.floor((height - logicalHeight * scale) / 2));
+        this.transform.scale(scale, scale);
+        for (int i = 0; i < this.scaledFrames.length; i++) {
+            this.scaledFrames[i] = ImageCache.createCompatibleImage(width, height, true);
+            Graphics2D g = this.scaledFrames[i].createGraphics();
+            g.setColor(Color.black);
+            g.fillRect(0, 0, width, height);
+            g.dispose();
+        }
+    }
+
+    @Override
+    public DrawSurface getDrawSurface() {
+        return new ImageDrawSurface(this.frame);
+    }
+
+    @Override
+    public void show(DrawSurface d) {
+        ((ImageDrawSurface) d).dispose();
+        this.current = 1 - this.current;
+        BufferedImage scaled = this.scaledFrames[this.current];
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(this.frame, this.transform, null);
+        g.dispose();
+        DrawSurface screen = this.display.getDrawSurface();
+        screen.drawImage(0, 0, scaled);
+        this.display.show(screen);
+    }
+
+    @Override
+    public KeyboardSensor getKeyboardSensor() {
+        return this.display.getKeyboardSensor();
+    }
+
+    @Override
+    public DialogManager getDialogManager() {
+        return this.display.getDialogManager();
+    }
+
+    @Override
+    public boolean isRealTime() {
+        return this.display.isRealTime();
+    }
+
+    @Override
+    public void close() {
+        this.display.close();
+    }
+
+} // class ScaledDisplay
@@ -0,0 +1,25 @@
+package animation;
+
+import biuoop.DrawSurface;
+
+/**
+ * The SteppedAnimation interface represents an animation whose logic advances in steps of a fixed length, that are
+ * independent of the frames that are displayed. A frame is drawn between the last two steps of the logic.
+ */
+public interface SteppedAnimation extends Animation {
+
+    /**
+     * Perform the logic of one step of the animation.
+     * @param dt specifies the number of seconds that a single step lasts.
+     */
+    void step(double dt);
+
+    /**
+     * Draw the current frame of the animation.
+     * @param d a draw surface you can draw on.
+     * @param alpha the part of the next step that has already passed (0 draws the state of the previous step,
+     * and 1 draws the current state).
+     */
+    void render(DrawSurface d, double alpha);
+
+} // interface SteppedAnimation
@@ -0,0 +1,93 @@
+package animation;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import readingfiles.ImageCache;
+
+/**
+ * The TextCache class is a process-wide cache of the images of the texts of the game (by the text, the size of its
+ * font and its color), so a text that doesn't change is laid out and drawn only once. The texts are drawn in the
+ * font that drawText of the surface uses, and the least recently used texts are evicted when the cache is full.
+ */
+public class TextCache {
+    // The default maximal number of texts in the cache.
+    public static final int DEFAULT_MAX_TEXTS = 256;
+    // Maps each key of a text to its image, in the order of the last use (the least recently used is first).
+    private static Map<String, TextImage> texts = new LinkedHashMap<String, TextImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TextImage> eldest) {
+            return this.size() > maxTexts;
+        }
+    };
+    private static int maxTexts = DEFAULT_MAX_TEXTS;
+    // The font of the surface, that the size of each text is applied to.
+    private static Font baseFont;
+
+    /**
+     * Return the image of the given text, drawing it only if it's not in the cache.
+     * @param text the text.
+     * @param fontSize the size of the font of the text.
+     * @param color the color of the text.
+     * @return the image of the text.
+     */
+    public static synchronized TextImage get(String text, int fontSize, Color color) {
+        String key = fontSize + ":" + color.getRGB() + ":" + text;
+        TextImage textImage = texts.get(key);
+        if (textImage == null) {
+            textImage = render(text, fontSize, color);
+            texts.put(key, textImage);
+        }
+        return textImage;
+    }
+
+    /**
+     * Set the maximal number of texts in the cache (the least recently used texts are evicted).
+     * @param max the maximal number of texts.
+     */
+    public static synchronized void setMaxTexts(int max) {
+        maxTexts = max;
+    }
+
+    /**
+     * Remove all the texts from the cache.
+     */
+    public static synchronized void clear() {
+        texts.clear();
+    }
+
+    /**
+     * @param text the text.
+     * @param fontSize the size of the font of the text.
+     * @param color the color of the text.
+     * @return a new image of the text, that covers exactly the pixels of the text.
+     */
+    private static TextImage render(String text, int fontSize, Color color) {
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scratch.createGraphics();
+        if (baseFont == null) {
+            baseFont = g.getFont();
+        }
+        Font font = new Font(baseFont.getFontName(), baseFont.getStyle(), fontSize);
+        FontRenderContext frc = g.getFontRenderContext();
+        Rectangle bounds = font.createGlyphVector(frc, text).getPixelBounds(frc, 0, 0);
+        g.dispose();
+        if (bounds.isEmpty()) {
+            return new TextImage(null, 0, 0);
+        }
+        BufferedImage image = ImageCache.createCompatibleImage(bounds.width, bounds.height, false);
+        g = image.createGraphics();
+        g.setFont(font);
+        g.setColor(color);
+        g.drawString(text, -bounds.x, -bounds.y);
+        g.dispose();
+        return new TextImage(image, bounds.x, bounds.y);
+    }
+
+} // class TextCache
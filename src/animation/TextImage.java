@@ -0,0 +1,42 @@
+package animation;
+
+import java.awt.Image;
+
+import biuoop.DrawSurface;
+
+/**
+ * The TextImage class holds a text that was drawn once on an image, so it can be drawn on the screen again and again
+ * as an image (without the layout of its font).
+ */
+public class TextImage {
+    // Declare the members of the class.
+    private Image image;
+    // The position of the upper left point of the image relative to the start of the baseline of the text.
+    private int offsetX;
+    private int offsetY;
+
+    /**
+     * Constructor.
+     * @param image the image of the text (null if the text has no pixels).
+     * @param offsetX the x value of the image relative to the start of the baseline of the text.
+     * @param offsetY the y value of the image relative to the start of the baseline of the text.
+     */
+    public TextImage(Image image, int offsetX, int offsetY) {
+        this.image = image;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+    }
+
+    /**
+     * Draw the text on the given surface, like drawText.
+     * @param d a surface you can draw on.
+     * @param x the x value of the start of the baseline of the text.
+     * @param y the y value of the baseline of the text.
+     */
+    public void drawOn(DrawSurface d, int x, int y) {
+        if (this.image != null) {
+            d.drawImage(x + this.offsetX, y + this.offsetY, this.image);
+        }
+    }
+
+} // class TextImage
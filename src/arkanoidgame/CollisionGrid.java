@@ -0,0 +1,264 @@
+package arkanoidgame;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import collision.Collidable;
+import geometry.BoundingBox;
+
+/**
+ * The CollisionGrid class is a uniform grid that indexes the collidables by their bounding boxes.
+ * A trajectory is walked cell by cell (DDA), so it's only checked against the collidables in the cells it crosses.
+ * Collidables that exceed the bounds of the grid are kept in the cells at the edges of the grid.
+ * Each collidable is inserted with a padding around it, so a circle whose radius is up to the padding, and whose
+ * center walks along the trajectory, is found in the cells of the trajectory too.
+ * The cells of a walk go in one direction on each axis, so a walk enters the range of cells of a collidable only once:
+ * a collidable is collected in the first cell of its range that the walk visits, and it's skipped in the cells after
+ * it (whose previous cell is in its range too). This needs no marks on the collidables, so several threads can walk
+ * the grid at the same time.
+ */
+public class CollisionGrid {
+    // Declare the members of the class.
+    private double cellSize;
+    private double padding;
+    private int columns;
+    private int rows;
+    private List<List<Entry>> cells;
+    // Maps each collidable to the range of cells it was inserted to: {minColumn, minRow, maxColumn, maxRow}.
+    private Map<Collidable, int[]> cellRanges = new IdentityHashMap<>();
+
+    /**
+     * Constructor.
+     * @param width the width of the area that the grid covers.
+     * @param height the height of the area that the grid covers.
+     * @param cellSize the length of the side of each (square) cell.
+     * @param padding the padding that is added around each collidable when it's inserted to the cells.
+     */
+    public CollisionGrid(double width, double height, double cellSize, double padding) {
+        this.cellSize = cellSize;
+        this.padding = padding;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cells = new ArrayList<>(this.columns * this.rows);
+        for (int i = 0; i < this.columns * this.rows; i++) {
+            this.cells.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * @param x an x value.
+     * @return the column of the cell that contains the given x value, clamped to the grid.
+     */
+    private int columnOf(double x) {
+        return clamp((int) Math.floor(x / this.cellSize), this.columns);
+    }
+
+    /**
+     * @param y a y value.
+     * @return the row of the cell that contains the given y value, clamped to the grid.
+     */
+    private int rowOf(double y) {
+        return clamp((int) Math.floor(y / this.cellSize), this.rows);
+    }
+
+    /**
+     * @param index an index of a column or a row.
+     * @param size the number of columns or rows.
+     * @return the index clamped to the range [0, size - 1].
+     */
+    private static int clamp(int index, int size) {
+        return Math.max(0, Math.min(size - 1, index));
+    }
+
+    /**
+     * @param column the column of the cell.
+     * @param row the row of the cell.
+     * @return the list of the collidables in the cell (the indices are clamped to the grid).
+     */
+    private List<Entry> cellAt(int column, int row) {
+        return this.cells.get(indexOf(column, row));
+    }
+
+    /**
+     * Insert the given collidable to all the cells that its bounding box overlaps.
+     * @param c the collidable that should be inserted to the grid.
+     */
+    public void add(Collidable c) {
+        // A collidable that is already in the grid is not inserted twice.
+        if (this.cellRanges.containsKey(c)) {
+            return;
+        }
+        BoundingBox bounds = c.getBounds();
+        double minX = bounds.getMinX() - this.padding;
+        double minY = bounds.getMinY() - this.padding;
+        double maxX = bounds.getMaxX() + this.padding;
+        double maxY = bounds.getMaxY() + this.padding;
+        int[] range = {columnOf(minX), rowOf(minY), columnOf(maxX), rowOf(maxY)};
+        Entry entry = new Entry(c, range);
+        for (int row = range[1]; row <= range[3]; row++) {
+            for (int column = range[0]; column <= range[2]; column++) {
+                cellAt(column, row).add(entry);
+            }
+        }
+        this.cellRanges.put(c, range);
+    }
+
+    /**
+     * @param c a collidable.
+     * @return true if the collidable is in the grid, false otherwise.
+     */
+    public boolean contains(Collidable c) {
+        return this.cellRanges.containsKey(c);
+    }
+
+    /**
+     * Remove the given collidable from all the cells it was inserted to.
+     * @param c the collidable that should be removed from the grid.
+     */
+    public void remove(Collidable c) {
+        int[] range = this.cellRanges.remove(c);
+        if (range == null) {
+            return;
+        }
+        for (int row = range[1]; row <= range[3]; row++) {
+            for (int column = range[0]; column <= range[2]; column++) {
+                List<Entry> cell = cellAt(column, row);
+                for (int i = 0; i < cell.size(); i++) {
+                    if (cell.get(i).collidable == c) {
+                        cell.remove(i);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param column the column of the cell.
+     * @param row the row of the cell.
+     * @return the index of the cell (the indices are clamped to the grid).
+     */
+    private int indexOf(int column, int row) {
+        return clamp(row, this.rows) * this.columns + clamp(column, this.columns);
+    }
+
+    /**
+     * @param entry an entry of the grid.
+     * @param index the index of a cell, or -1 for no cell.
+     * @return true if the cell is in the range of the cells of the entry, false otherwise.
+     */
+    private boolean covers(Entry entry, int index) {
+        return index >= 0 && entry.covers(index % this.columns, index / this.columns);
+    }
+
+    /**
+     * Add the collidables of the given cell to the candidates list, except the ones whose range of cells contains
+     * a cell that the walk visited before (they were already added).
+     * @param column the column of the cell.
+     * @param row the row of the cell.
+     * @param previous the index of the previous cell of the walk (-1 for the first cell).
+     * @param corner the index of the cell beside the corner that the walk passed through to this cell (-1 if the
+     * walk didn't pass through a corner).
+     * @param candidates the list that the collidables are added to.
+     */
+    private void collectCell(int column, int row, int previous, int corner, List<Collidable> candidates) {
+        List<Entry> cell = cellAt(column, row);
+        for (int i = 0; i < cell.size(); i++) {
+            Entry entry = cell.get(i);
+            if (!covers(entry, previous) && !covers(entry, corner)) {
+                candidates.add(entry.collidable);
+            }
+        }
+    }
+
+    /**
+     * Walk over the cells that the segment crosses (DDA) and collect the collidables that are in them.
+     * @param x1 the x value of the start of the segment.
+     * @param y1 the y value of the start of the segment.
+     * @param x2 the x value of the end of the segment.
+     * @param y2 the y value of the end of the segment.
+     * @param candidates the list that the collidables are added to.
+     */
+    public void collectCandidates(double x1, double y1, double x2, double y2, List<Collidable> candidates) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        // The cells of the start and the end of the segment (not clamped, the clamping is done per cell).
+        int column = (int) Math.floor(x1 / this.cellSize);
+        int row = (int) Math.floor(y1 / this.cellSize);
+        int endColumn = (int) Math.floor(x2 / this.cellSize);
+        int endRow = (int) Math.floor(y2 / this.cellSize);
+        int stepX = (int) Math.signum(dx);
+        int stepY = (int) Math.signum(dy);
+        // tMax is the part of the segment after which the next vertical (or horizontal) cell border is crossed,
+        // and tDelta is the part of the segment it takes to cross a whole cell.
+        double tMaxX = Double.POSITIVE_INFINITY;
+        double tMaxY = Double.POSITIVE_INFINITY;
+        double tDeltaX = Double.POSITIVE_INFINITY;
+        double tDeltaY = Double.POSITIVE_INFINITY;
+        if (stepX != 0) {
+            double borderX = (stepX > 0 ? column + 1 : column) * this.cellSize;
+            tMaxX = (borderX - x1) / dx;
+            tDeltaX = this.cellSize / Math.abs(dx);
+        }
+        if (stepY != 0) {
+            double borderY = (stepY > 0 ? row + 1 : row) * this.cellSize;
+            tMaxY = (borderY - y1) / dy;
+            tDeltaY = this.cellSize / Math.abs(dy);
+        }
+        collectCell(column, row, -1, -1, candidates);
+        // Each step crosses exactly one border, so the walk reaches the cell of the end after this number of steps.
+        int steps = Math.abs(endColumn - column) + Math.abs(endRow - row);
+        // The cell beside the last corner that the walk passed through (-1 if the last step wasn't at a corner).
+        int corner = -1;
+        for (int i = 0; i < steps; i++) {
+            int previous = indexOf(column, row);
+            int previousCorner = corner;
+            corner = -1;
+            if (tMaxX < tMaxY) {
+                column += stepX;
+                tMaxX += tDeltaX;
+            } else if (tMaxY < tMaxX) {
+                row += stepY;
+                tMaxY += tDeltaY;
+            } else {
+                // The segment passes exactly through a corner, so it touches the cell beside it as well as the cells
+                // of the walk (the next step is to the cell on the other side of the corner).
+                collectCell(column + stepX, row, previous, -1, candidates);
+                corner = indexOf(column + stepX, row);
+                row += stepY;
+                tMaxY += tDeltaY;
+            }
+            collectCell(column, row, previous, previousCorner, candidates);
+        }
+    } // collectCandidates
+
+    /**
+     * The Entry class is a collidable in the cells of the grid, with the range of the cells it was inserted to.
+     */
+    private static final class Entry {
+        // Declare the members of the class.
+        private final Collidable collidable;
+        private final int[] range;
+
+        /**
+         * Constructor.
+         * @param collidable the collidable.
+         * @param range the range of the cells of the collidable: {minColumn, minRow, maxColumn, maxRow}.
+         */
+        Entry(Collidable collidable, int[] range) {
+            this.collidable = collidable;
+            this.range = range;
+        }
+
+        /**
+         * @param column the column of a cell.
+         * @param row the row of a cell.
+         * @return true if the cell is in the range of the cells of the collidable, false otherwise.
+         */
+        boolean covers(int column, int row) {
+            return this.range[0] <= column && column <= this.range[2] && this.range[1] <= row && row <= this.range[3];
+        }
+    } // class Entry
+
+} // class CollisionGrid
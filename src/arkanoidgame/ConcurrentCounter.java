@@ -0,0 +1,43 @@
+package arkanoidgame;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ConcurrentCounter class is a counter that can be increased and decreased by several threads at the same time
+ * (for example, by listeners that are notified from a parallel step) and read by another thread (like the HUD that
+ * is drawn by the render thread). The value is kept in a LongAdder: each thread adds to a cell of its own when the
+ * threads contend, so the updates don't wait for each other, and reading the value only sums the cells without
+ * writing, so the readers don't slow down the updates.
+ * The value that is read isn't an atomic snapshot: a value that is read while no update is in progress (like the
+ * values that the game checks between its steps) is exact, but a value that is read during updates may include some
+ * of them and miss others, even an update that was made before one that it includes. It's good enough for a reader
+ * that only shows the value (like the HUD), and it's exact again as soon as the updates stop.
+ */
+public class ConcurrentCounter implements Counter {
+    // Declare the members of the class.
+    private LongAdder adder = new LongAdder();
+
+    /**
+     * Constructor.
+     * @param value the value that the counter initialized with it.
+     */
+    public ConcurrentCounter(int value) {
+        this.adder.add(value);
+    }
+
+    @Override
+    public void increase(int number) {
+        this.adder.add(number);
+    }
+
+    @Override
+    public void decrease(int number) {
+        this.adder.add(-number);
+    }
+
+    @Override
+    public int getValue() {
+        return (int) this.adder.sum();
+    }
+
+} // class ConcurrentCounter
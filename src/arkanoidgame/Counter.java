@@ -1,39 +1,24 @@
 package arkanoidgame;
 
 /**
- * The Counter class is used for counting.
+ * The Counter interface is used for counting (SimpleCounter counts in a single thread, and ConcurrentCounter is
+ * shared by several threads).
  */
-public class Counter {
-    // Declare the members of the class.
-    private int value;
-
-    /**
-     * Constructor.
-     * @param value the value that the counter initialized with it.
-     */
-    public Counter(int value) {
-        this.value = value;
-    }
+public interface Counter {
 
     /**
      * @param number the number that should be added to the current value of the counter.
      */
-    public void increase(int number) {
-        this.value = this.value + number;
-    }
+    void increase(int number);
 
     /**
      * @param number the number that should be subtracted from the current value of the counter.
      */
-    public void decrease(int number) {
-        this.value = this.value - number;
-    }
+    void decrease(int number);
 
     /**
      * @return the current value of the counter.
      */
-    public int getValue() {
-        return this.value;
-    }
+    int getValue();
 
-} // class Counter
\ No newline at end of file
+} // interface Counter
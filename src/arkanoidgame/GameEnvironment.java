@@ -4,23 +4,49 @@ import java.util.List;
 
 import collision.Collidable;
 import collision.CollisionInfo;
+import geometry.AabbIntersection;
+import geometry.BoundingBox;
 import geometry.Line;
 import geometry.Point;
-import geometry.Rectangle;
+import geometry.SegmentHit;
+import sprites.TileMap;
 
 /**
  * The GameEnvironment class represents a collection of objects that a ball can collide with them.
  * The ball should know the game environment, and use it to check for collisions and direct its movement.
+ * The static collidables are indexed in a uniform grid, so a trajectory is checked only against the collidables
+ * that are near it, using the cached bounding boxes of the collidables. Moving collidables (like the paddle)
+ * are kept aside and checked against every trajectory. The collidables are kept in a handle list, so removing one
+ * doesn't search the list.
  */
 public class GameEnvironment {
+    // The length of the side of each cell of the grid (about the width of a block).
+    private static final double CELL_SIZE = 50;
     // Declare the members of the class.
-    private List<Collidable> collidablesList = new ArrayList<>();
+    private HandleList<Collidable> collidablesList = new HandleList<>();
+    private List<Collidable> movingCollidables = new ArrayList<>();
+    private CollisionGrid grid;
+    // The maps of blocks that are laid out on a grid (each map searches its own cells).
+    private List<TileMap> tileMaps = new ArrayList<>();
+    // The candidates of the current query (reused between the queries).
+    private List<Collidable> candidates = new ArrayList<>();
+    private SegmentHit currentHit = new SegmentHit();
 
     /**
-     * @return the list of the collidables.
+     * Constructor.
+     * @param width the width of the area of the game.
+     * @param height the height of the area of the game.
+     * @param maxRadius the radius of the biggest ball that moves in the game environment.
+     */
+    public GameEnvironment(double width, double height, double maxRadius) {
+        this.grid = new CollisionGrid(width, height, CELL_SIZE, maxRadius);
+    }
+
+    /**
+     * @return a new list of the collidables.
      */
     public List<Collidable> getCollidablesList() {
-        return this.collidablesList;
+        return this.collidablesList.toList();
     }
 
     /**
@@ -28,6 +54,11 @@ public class GameEnvironment {
      */
     public void removeCollidable(Collidable collidable) {
         this.collidablesList.remove(collidable);
+        // The list isn't iterated, so its empty slots can be taken out right away.
+        this.collidablesList.compact();
+        if (!this.movingCollidables.remove(collidable)) {
+            this.grid.remove(collidable);
+        }
     }
 
     /**
@@ -36,6 +67,41 @@ public class GameEnvironment {
      */
     public void addCollidable(Collidable c) {
         this.collidablesList.add(c);
+        this.grid.add(c);
+    }
+
+    /**
+     * Add a collidable that changes its position during the game. Its collision rectangle is not indexed in the
+     * grid, and it's checked against every trajectory.
+     * @param c the moving collidable object that should be added to the game environment.
+     */
+    public void addMovingCollidable(Collidable c) {
+        this.collidablesList.add(c);
+        this.movingCollidables.add(c);
+    }
+
+    /**
+     * Add a map of blocks to the game environment.
+     * @param tileMap the map of blocks that should be added to the game environment.
+     */
+    public void addTileMap(TileMap tileMap) {
+        this.tileMaps.add(tileMap);
+    }
+
+    /**
+     * @param c a collidable.
+     * @return true if the collidable is in the game environment, false otherwise.
+     */
+    public boolean contains(Collidable c) {
+        if (this.grid.contains(c) || this.movingCollidables.contains(c)) {
+            return true;
+        }
+        for (int i = 0; i < this.tileMaps.size(); i++) {
+            if (this.tileMaps.get(i).contains(c)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -44,30 +110,79 @@ public class GameEnvironment {
      * with any of the collidables of the collection, return null.
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
-        Collidable pointerToList;
-        Collidable saver = null;
-        Point closestInter = null;  // The closest point.
-        Point currentInter; // The current point.
-        Rectangle recCollidable;
-        // Run over all the collidiables and find the closest colliding point with the line.
-        for (Collidable collidable : this.collidablesList) {
-            // Set a pointer to the current position in the list.
-            pointerToList = collidable;
-            // Get the rectangle shape of the collidable.
-            recCollidable = pointerToList.getCollisionRectangle();
-            // Find the closest intersection with the line.
-            currentInter = trajectory.closestIntersectionToStartOfLine(recCollidable);
-            if (currentInter != null && closestInter == null) {
-                // Update the closest to be the current intersection.
-                closestInter = currentInter;
-                saver = pointerToList;
-            } else if (currentInter != null && closestInter != null && trajectory.start().distance(currentInter)
-                    < trajectory.start().distance(closestInter)) {
-                closestInter = currentInter;
-                saver = pointerToList;
-            }
+        SegmentHit closestHit = new SegmentHit();
+        Collidable collidable = this.getClosestCollision(trajectory.start().getX(), trajectory.start().getY(),
+            trajectory.end().getX(), trajectory.end().getY(), 0, closestHit);
+        if (collidable == null) {
+            return new CollisionInfo(null, null);
         }
-        return new CollisionInfo(closestInter, saver);
+        return new CollisionInfo(new Point(closestHit.getX(), closestHit.getY()), collidable);
+    }
+
+    /**
+     * Find the closest collision of a ball (a circle) whose center moves along the segment from (x1, y1) to (x2, y2).
+     * The search works on primitive values only, so it doesn't create any objects.
+     * @param x1 the x value of the start of the movement.
+     * @param y1 the y value of the start of the movement.
+     * @param x2 the x value of the end of the movement.
+     * @param y2 the y value of the end of the movement.
+     * @param radius the radius of the ball (0 for a movement of a single point).
+     * @param closestHit the object that the information about the closest hit is written to (the time of impact
+     * and the contact point on the collidable).
+     * @return the collidable of the closest collision, or null if the movement doesn't collide with anything.
+     */
+    public Collidable getClosestCollision(double x1, double y1, double x2, double y2, double radius,
+                                          SegmentHit closestHit) {
+        return this.getClosestCollision(x1, y1, x2, y2, radius, closestHit, this.candidates, this.currentHit);
     }
 
+    /**
+     * Find the closest collision of a ball whose center moves along the segment from (x1, y1) to (x2, y2), using
+     * the given lists as a scratch space. The game environment is only read, so several threads can search at
+     * the same time (each with scratch space of its own), as long as no collidable is added or removed meanwhile.
+     * @param x1 the x value of the start of the movement.
+     * @param y1 the y value of the start of the movement.
+     * @param x2 the x value of the end of the movement.
+     * @param y2 the y value of the end of the movement.
+     * @param radius the radius of the ball (0 for a movement of a single point).
+     * @param closestHit the object that the information about the closest hit is written to.
+     * @param candidateList a list that the candidates of the search are collected to.
+     * @param scratchHit an object that the hit of each candidate is written to.
+     * @return the collidable of the closest collision, or null if the movement doesn't collide with anything.
+     */
+    public Collidable getClosestCollision(double x1, double y1, double x2, double y2, double radius,
+                                          SegmentHit closestHit, List<Collidable> candidateList,
+                                          SegmentHit scratchHit) {
+        Collidable closest = null;
+        Collidable current;
+        BoundingBox bounds;
+        // Collect only the collidables in the cells that the trajectory crosses, and the moving collidables.
+        candidateList.clear();
+        this.grid.collectCandidates(x1, y1, x2, y2, candidateList);
+        for (int i = 0; i < this.movingCollidables.size(); i++) {
+            candidateList.add(this.movingCollidables.get(i));
+        }
+        // Run over the candidates and find the closest hit along the movement.
+        for (int i = 0; i < candidateList.size(); i++) {
+            current = candidateList.get(i);
+            bounds = current.getBounds();
+            if (AabbIntersection.sweptCircleVsAabb(x1, y1, x2, y2, radius, bounds.getMinX(), bounds.getMinY(),
+                    bounds.getMaxX(), bounds.getMaxY(), scratchHit)
+                    && (closest == null || scratchHit.getT() < closestHit.getT())) {
+                closestHit.copy(scratchHit);
+                closest = current;
+            }
+        }
+        // Search the maps of blocks for a closer hit (a block object is created only for the cell of the hit).
+        for (int i = 0; i < this.tileMaps.size(); i++) {
+            TileMap tileMap = this.tileMaps.get(i);
+            double maxT = closest == null ? Double.POSITIVE_INFINITY : closestHit.getT();
+            int cell = tileMap.closestCell(x1, y1, x2, y2, radius, maxT, closestHit, scratchHit);
+            if (cell >= 0) {
+                closest = tileMap.tileAt(cell);
+            }
+        }
+        return closest;
+    } // getClosestCollision
+
 } // class GameEnvironment
@@ -0,0 +1,161 @@
+package arkanoidgame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The HandleList class is an ordered collection of objects (like the sprites or the collidables of a game) that
+ * removes an object in O(1). Each object has a slot, and a map finds the slot of an object, so removing it only
+ * leaves an empty slot (a tombstone) instead of searching the list and moving the rest of it. The objects are
+ * iterated by their slots, from 0 to slots() - 1, skipping the empty slots (get returns null for them), so objects
+ * can be removed in the middle of an iteration without moving the others. The empty slots are taken out by
+ * compact(), that must not be called during an iteration.
+ * @param <T> the type of the objects in the list.
+ */
+public class HandleList<T> {
+    private static final int INITIAL_CAPACITY = 16;
+    // Declare the members of the class.
+    private Object[] items = new Object[INITIAL_CAPACITY];
+    // The number of the used slots (including the empty ones), and the number of the objects.
+    private int slots = 0;
+    private int size = 0;
+    // Maps each object in the list to its slot.
+    private Map<T, Integer> slotOf = new IdentityHashMap<>();
+
+    /**
+     * Add an object at the end of the list (an object that is already in the list isn't added again).
+     * @param item the object.
+     * @return true if the object was added, false if it's already in the list.
+     */
+    public boolean add(T item) {
+        if (this.slotOf.containsKey(item)) {
+            return false;
+        }
+        if (this.slots == this.items.length) {
+            this.items = Arrays.copyOf(this.items, this.items.length * 2);
+        }
+        this.items[this.slots] = item;
+        this.slotOf.put(item, this.slots);
+        this.slots++;
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Add an object at the start of the list (it takes O(n), since the slots of all the objects are moved, so it must
+     * not be called during an iteration).
+     * @param item the object.
+     * @return true if the object was added, false if it's already in the list.
+     */
+    public boolean addFirst(T item) {
+        if (this.slotOf.containsKey(item)) {
+            return false;
+        }
+        this.compact();
+        if (this.slots == this.items.length) {
+            this.items = Arrays.copyOf(this.items, this.items.length * 2);
+        }
+        System.arraycopy(this.items, 0, this.items, 1, this.slots);
+        this.items[0] = item;
+        this.slots++;
+        this.size++;
+        this.reindex();
+        return true;
+    }
+
+    /**
+     * Remove an object from the list, leaving its slot empty.
+     * @param item the object.
+     * @return true if the object was removed, false if it isn't in the list.
+     */
+    public boolean remove(T item) {
+        Integer slot = this.slotOf.remove(item);
+        if (slot == null) {
+            return false;
+        }
+        this.items[slot] = null;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * @param item an object.
+     * @return true if the object is in the list, false otherwise.
+     */
+    public boolean contains(T item) {
+        return this.slotOf.containsKey(item);
+    }
+
+    /**
+     * @param slot a slot in the range 0 to slots() - 1.
+     * @return the object in the slot, or null if the slot is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int slot) {
+        return (T) this.items[slot];
+    }
+
+    /**
+     * @return the number of the slots that should be iterated (including the empty ones).
+     */
+    public int slots() {
+        return this.slots;
+    }
+
+    /**
+     * @return the number of the objects in the list.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Take out the empty slots if they are at least half of the slots, keeping the order of the objects (so the
+     * cost of the compaction is spread over the removals). It must not be called during an iteration.
+     */
+    public void compact() {
+        int empty = this.slots - this.size;
+        if (empty == 0 || empty * 2 < this.slots) {
+            return;
+        }
+        int next = 0;
+        for (int i = 0; i < this.slots; i++) {
+            if (this.items[i] != null) {
+                this.items[next++] = this.items[i];
+            }
+        }
+        Arrays.fill(this.items, next, this.slots, null);
+        this.slots = next;
+        this.reindex();
+    }
+
+    /**
+     * Map each object to its slot again (after the slots were moved).
+     */
+    @SuppressWarnings("unchecked")
+    private void reindex() {
+        for (int i = 0; i < this.slots; i++) {
+            if (this.items[i] != null) {
+                this.slotOf.put((T) this.items[i], i);
+            }
+        }
+    }
+
+    /**
+     * @return a new list of the objects, in their order.
+     */
+    public List<T> toList() {
+        List<T> list = new ArrayList<>(this.size);
+        for (int i = 0; i < this.slots; i++) {
+            T item = this.get(i);
+            if (item != null) {
+                list.add(item);
+            }
+        }
+        return list;
+    }
+
+} // class HandleList
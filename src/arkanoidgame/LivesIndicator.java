@@ -2,14 +2,14 @@ package arkanoidgame;
 
 import java.awt.Color;
 import java.awt.Image;
-import java.io.IOException;
-import java.util.Objects;
 
+import animation.TextCache;
+import animation.TextImage;
 import biuoop.DrawSurface;
 import levels.GameLevel;
 import sprites.Sprite;
 
-import javax.imageio.ImageIO;
+import readingfiles.ImageCache;
 
 /**
  * The LivesIndicator class indicates the current number of lives.
@@ -17,6 +17,9 @@ import javax.imageio.ImageIO;
 public class LivesIndicator implements Sprite {
     // Declare the members of the class.
     private Counter numberOfLives;
+    // The image of the text of the number of lives, and the number that it shows.
+    private TextImage livesText;
+    private int shownLives;
 
     /**
      * Constructor.
@@ -31,23 +34,27 @@ public class LivesIndicator implements Sprite {
         // Draw the LivesIndicator sprite at the top of the screen.
         int leftBlockX = d.getWidth() / 3;
         int centerBlockY = d.getHeight() / 25;
-        Image heartImage = null;
-        try {
-            heartImage = ImageIO.read(Objects.requireNonNull(
-                    ClassLoader.getSystemClassLoader().getResourceAsStream("general_images/heart.png")));
-        } catch (IOException e) {
-        }
+        Image heartImage = ImageCache.get("general_images/heart.png");
         d.drawImage(leftBlockX - 22, -10, heartImage);
         Color textColor = Color.black;
-        d.setColor(textColor);
-        String scoreString = Integer.toString(this.numberOfLives.getValue());
-        d.drawText(leftBlockX, centerBlockY, scoreString, 20);
+        // The text is drawn again only when the number of lives changes.
+        int currentLives = this.numberOfLives.getValue();
+        if (this.livesText == null || currentLives != this.shownLives) {
+            this.livesText = TextCache.get(Integer.toString(currentLives), 20, textColor);
+            this.shownLives = currentLives;
+        }
+        this.livesText.drawOn(d, leftBlockX, centerBlockY);
     }
 
     @Override
     public void timePassed(double dt) {
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     /**
      * Add the score indicator to the game, by calling the appropriate game methods.
@@ -4,12 +4,14 @@ import java.awt.Color;
 import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
 import collision.Collidable;
+import geometry.BoundingBox;
 import geometry.Line;
 import geometry.Point;
 import geometry.Rectangle;
 import levels.GameLevel;
 import sprites.Ball;
-import sprites.Colors;
+import sprites.DirtyRegion;
+import sprites.Palette;
 import sprites.Sprite;
 
 /**
@@ -21,7 +23,14 @@ public class Paddle implements Sprite, Collidable {
     private Line movementRange;  // The range that the paddle can move in.
     private KeyboardSensor keyboard;
     private Rectangle rectangle;
+    // The edges of the rectangle (updated whenever the paddle moves).
+    private BoundingBox bounds;
+    // The x value of the upper left point before the last step (the paddle is drawn between it and the current one).
+    private double previousX;
     private java.awt.Color color;
+    // The cycling color of the paddle is chosen by the time that it has moved.
+    private int colorEntity = Palette.newEntity();
+    private double movingTime = 0;
     // The change that the paddle makes in a case of a key pressing to the left or right.
     private int paddleSpeed;
 
@@ -36,6 +45,8 @@ public class Paddle implements Sprite, Collidable {
     public Paddle(Point location, double width, double height,
         Color color, int paddleSpeed) {
         this.rectangle = new Rectangle(location, width, height);
+        this.bounds = new BoundingBox(this.rectangle);
+        this.previousX = location.getX();
         this.color = color;
         this.paddleSpeed = paddleSpeed;
     }
@@ -75,6 +86,7 @@ public class Paddle implements Sprite, Collidable {
         Point currentPosition = this.rectangle.getUpperLeft();
         // Update the x value of the start point of the rectangle.
         this.rectangle.setUpperLeft(new Point(currentPosition.getX() + d, currentPosition.getY()));
+        this.bounds = new BoundingBox(this.rectangle);
     }
 
     /**
@@ -82,7 +94,7 @@ public class Paddle implements Sprite, Collidable {
      * @param dt specifies the amount of seconds passed since the last call.
      */
     private boolean rightExceeding(double dt) {
-        return this.getCollisionRectangle().getUpperEdge().end().getX() + paddleSpeed * dt
+        return this.rectangle.getUpperLeft().getX() + this.rectangle.getWidth() + paddleSpeed * dt
             > this.movementRange.end().getX();
     }
 
@@ -91,7 +103,7 @@ public class Paddle implements Sprite, Collidable {
      * @param dt specifies the amount of seconds passed since the last call.
      */
     private boolean leftExceeding(double dt) {
-        return this.getCollisionRectangle().getUpperEdge().start().getX() - paddleSpeed * dt
+        return this.rectangle.getUpperLeft().getX() - paddleSpeed * dt
             < this.movementRange.start().getX();
     }
 
@@ -101,8 +113,8 @@ public class Paddle implements Sprite, Collidable {
      */
     public void moveLeft(double dt) {
         this.changePaddlePosition((-paddleSpeed * dt));
-        Colors colors = new Colors();
-        this.setColor(colors.setRainbowColor(-1));
+        this.movingTime += dt;
+        this.setColor(Palette.cycle(this.colorEntity, this.movingTime));
     }
 
     /**
@@ -111,8 +123,8 @@ public class Paddle implements Sprite, Collidable {
      */
     public void moveRight(double dt) {
         this.changePaddlePosition((paddleSpeed * dt));
-        Colors colors = new Colors();
-        this.setColor(colors.setRainbowColor(-1));
+        this.movingTime += dt;
+        this.setColor(Palette.cycle(this.colorEntity, this.movingTime));
     }
 
     /**
@@ -121,6 +133,7 @@ public class Paddle implements Sprite, Collidable {
      * @param dt specifies the amount of seconds passed since the last call.
      */
     public void timePassed(double dt) {
+        this.previousX = this.rectangle.getUpperLeft().getX();
         if (this.keyboard.isPressed(KeyboardSensor.LEFT_KEY) && !leftExceeding(dt)) {
             moveLeft(dt);
         } else if (this.keyboard.isPressed(KeyboardSensor.RIGHT_KEY) && !rightExceeding(dt)) {
@@ -133,8 +146,19 @@ public class Paddle implements Sprite, Collidable {
      * @param d a surface you can draw on.
      */
     public void drawOn(DrawSurface d) {
+        this.drawOn(d, 1);
+    }
+
+    /**
+     * Draw the paddle on the screen, between its previous position and its current position.
+     * @param d a surface you can draw on.
+     * @param alpha the part of the way from the previous position of the paddle to its current position.
+     */
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
         // Find the x and y values of the upper left, the width and the height of the rectangle.
-        int upperLeftX = (int) this.rectangle.getUpperLeft().getX();
+        double currentX = this.rectangle.getUpperLeft().getX();
+        int upperLeftX = (int) (this.previousX + (currentX - this.previousX) * alpha);
         int upperLeftY = (int) this.rectangle.getUpperLeft().getY();
         int width = (int) this.rectangle.getWidth();
         int height = (int) this.rectangle.getHeight();
@@ -143,6 +167,15 @@ public class Paddle implements Sprite, Collidable {
         d.fillRectangle(upperLeftX, upperLeftY, width, height);
     }
 
+    @Override
+    public boolean addDrawnArea(DirtyRegion region, double alpha) {
+        double currentX = this.rectangle.getUpperLeft().getX();
+        int upperLeftX = (int) (this.previousX + (currentX - this.previousX) * alpha);
+        int upperLeftY = (int) this.rectangle.getUpperLeft().getY();
+        region.add(upperLeftX, upperLeftY, (int) this.rectangle.getWidth() + 1, (int) this.rectangle.getHeight() + 1);
+        return true;
+    }
+
     /**
      * @return the "collision shape" of the object.
      */
@@ -150,6 +183,11 @@ public class Paddle implements Sprite, Collidable {
         return (this.rectangle);
     }
 
+    @Override
+    public BoundingBox getBounds() {
+        return this.bounds;
+    }
+
     /**
      * @param collisionPoint the collision point of the ball with the paddle.
      * @return the number of the region of the collision - the paddle has 5 equally-spaced regions,
@@ -158,8 +196,8 @@ public class Paddle implements Sprite, Collidable {
     private int findPaddleRegion(Point collisionPoint) {
         Rectangle shapeOfPaddle = this.getCollisionRectangle();
         // Divide the paddle to 5 equally-spaced regions.
-        double divisionLengthBy5 = shapeOfPaddle.getUpperEdge().length() / 5;
-        double leftXPaddle = shapeOfPaddle.getUpperEdge().start().getX();
+        double divisionLengthBy5 = shapeOfPaddle.getWidth() / 5;
+        double leftXPaddle = shapeOfPaddle.getUpperLeft().getX();
         // Return the number of the region of the collision.
         if (leftXPaddle <= collisionPoint.getX() && collisionPoint.getX() < leftXPaddle + divisionLengthBy5) {
             return 1;
@@ -226,7 +264,7 @@ public class Paddle implements Sprite, Collidable {
      */
     public void addToGame(GameLevel g) {
         g.addSprite(this);
-        g.addCollidable(this);
+        g.addMovingCollidable(this);
     }
 
 } // class Paddle
\ No newline at end of file
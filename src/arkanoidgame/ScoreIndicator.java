@@ -2,6 +2,8 @@ package arkanoidgame;
 
 import java.awt.Color;
 
+import animation.TextCache;
+import animation.TextImage;
 import biuoop.DrawSurface;
 import levels.GameLevel;
 import sprites.Sprite;
@@ -12,6 +14,9 @@ import sprites.Sprite;
 public class ScoreIndicator implements Sprite {
     // Declare the members of the class.
     private Counter score;
+    // The image of the text of the score, and the score that it shows.
+    private TextImage scoreText;
+    private int shownScore;
 
     /**
      * Constructor.
@@ -27,15 +32,24 @@ public class ScoreIndicator implements Sprite {
         int centerBlockX =  360;
         int centerBlockY = d.getHeight() / 25;
         Color textColor = Color.black;
-        d.setColor(textColor);
-        String scoreString = "Score: " + this.score.getValue();
-        d.drawText(centerBlockX, centerBlockY, scoreString, 20);
+        // The text is drawn again only when the score changes.
+        int currentScore = this.score.getValue();
+        if (this.scoreText == null || currentScore != this.shownScore) {
+            this.scoreText = TextCache.get("Score: " + currentScore, 20, textColor);
+            this.shownScore = currentScore;
+        }
+        this.scoreText.drawOn(d, centerBlockX, centerBlockY);
     }
 
     @Override
     public void timePassed(double dt) {
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     /**
      * Add the score indicator to the game, by calling the appropriate game methods.
@@ -0,0 +1,34 @@
+package arkanoidgame;
+
+/**
+ * The SimpleCounter class is a counter that is used by a single thread (see ConcurrentCounter for counters that are
+ * shared by several threads).
+ */
+public class SimpleCounter implements Counter {
+    // Declare the members of the class.
+    private int value;
+
+    /**
+     * Constructor.
+     * @param value the value that the counter initialized with it.
+     */
+    public SimpleCounter(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public void increase(int number) {
+        this.value = this.value + number;
+    }
+
+    @Override
+    public void decrease(int number) {
+        this.value = this.value - number;
+    }
+
+    @Override
+    public int getValue() {
+        return this.value;
+    }
+
+} // class SimpleCounter
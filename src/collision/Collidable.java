@@ -1,5 +1,6 @@
 package collision;
 import arkanoidgame.Velocity;
+import geometry.BoundingBox;
 import geometry.Point;
 import geometry.Rectangle;
 import sprites.Ball;
@@ -13,6 +14,16 @@ public interface Collidable {
      */
     Rectangle getCollisionRectangle();
 
+    /**
+     * Return the edges of the collision shape of the object. Objects that don't move should keep the box and return
+     * the same one every time (and objects that move should update it when they move), so the box isn't computed
+     * on every collision check.
+     * @return the bounding box of the collision shape of the object.
+     */
+    default BoundingBox getBounds() {
+        return new BoundingBox(this.getCollisionRectangle());
+    }
+
     /**
      * Notify the object that the ball collided with at collisionPoint with a given velocity.
      * @param hitter the ball that collided with the object.
@@ -0,0 +1,183 @@
+package collision;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import arkanoidgame.GameEnvironment;
+import sprites.Ball;
+import sprites.Block;
+
+/**
+ * The HitEventBus class collects the hits of the blocks of a level, and passes them to the listeners of the level
+ * once in each step. A hit is written into a ring buffer that is allocated in advance (the block, the ball and the
+ * collision point), so a hit doesn't create any objects, and the listeners are shared by all the blocks instead of
+ * a listener of each kind for each block.
+ * The hit points of the block are decreased when the hit is written, and a block whose last hit point was taken is
+ * removed from the game environment right away, so the next hits of the step don't bounce off it. Only the listeners
+ * are notified later: the hit points of the block before the hit are kept with the hit, and when the bus is drained
+ * the block shows them while the listeners are notified about the hit (as before), so the listeners see the hits as
+ * if they were notified during them. Listeners that are added or removed while the bus is drained are added or
+ * removed when the drain is over.
+ */
+public class HitEventBus {
+    private static final int INITIAL_CAPACITY = 64;
+    // Declare the members of the class.
+    private Block[] blocks = new Block[INITIAL_CAPACITY];
+    private Ball[] hitters = new Ball[INITIAL_CAPACITY];
+    private double[] hitX = new double[INITIAL_CAPACITY];
+    private double[] hitY = new double[INITIAL_CAPACITY];
+    // The hit points of each block before its hit.
+    private int[] hitPoints = new int[INITIAL_CAPACITY];
+    // The index of the oldest hit in the buffer, and the number of the hits in it.
+    private int head = 0;
+    private int count = 0;
+    private List<HitListener> listeners = new ArrayList<>();
+    private List<HitListener> pendingAdditions = new ArrayList<>();
+    private List<HitListener> pendingRemovals = new ArrayList<>();
+    private boolean draining = false;
+    // The collision point of the hit whose listeners are being notified.
+    private double currentX;
+    private double currentY;
+    private GameEnvironment environment;
+
+    /**
+     * Constructor.
+     * @param environment the game environment that the blocks are removed from when their last hit point is taken.
+     */
+    public HitEventBus(GameEnvironment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Write a hit into the buffer (the buffer grows if it's full), and decrease the hit points of the block.
+     * @param beingHit the block that was hit.
+     * @param hitter the ball that hit the block.
+     * @param x the x value of the collision point.
+     * @param y the y value of the collision point.
+     */
+    public void post(Block beingHit, Ball hitter, double x, double y) {
+        if (this.count == this.blocks.length) {
+            this.grow();
+        }
+        int hitsBefore = beingHit.getHitPoints();
+        beingHit.decreaseNumOfHits();
+        if (hitsBefore > 0 && beingHit.getHitPoints() == 0) {
+            beingHit.removeFromEnvironment(this.environment);
+        }
+        int index = (this.head + this.count) & (this.blocks.length - 1);
+        this.blocks[index] = beingHit;
+        this.hitPoints[index] = hitsBefore;
+        this.hitters[index] = hitter;
+        this.hitX[index] = x;
+        this.hitY[index] = y;
+        this.count++;
+    }
+
+    /**
+     * Double the capacity of the buffer, keeping the hits in their order.
+     */
+    private void grow() {
+        int capacity = this.blocks.length * 2;
+        Block[] newBlocks = new Block[capacity];
+        Ball[] newHitters = new Ball[capacity];
+        double[] newX = new double[capacity];
+        double[] newY = new double[capacity];
+        int[] newHitPoints = new int[capacity];
+        for (int i = 0; i < this.count; i++) {
+            int index = (this.head + i) & (this.blocks.length - 1);
+            newBlocks[i] = this.blocks[index];
+            newHitters[i] = this.hitters[index];
+            newX[i] = this.hitX[index];
+            newY[i] = this.hitY[index];
+            newHitPoints[i] = this.hitPoints[index];
+        }
+        this.blocks = newBlocks;
+        this.hitters = newHitters;
+        this.hitX = newX;
+        this.hitY = newY;
+        this.hitPoints = newHitPoints;
+        this.head = 0;
+    }
+
+    /**
+     * Notify the listeners about all the hits in the buffer, in the order of the hits. During the notification about
+     * a hit, the block has the hit points it had before the hit.
+     */
+    public void drain() {
+        this.draining = true;
+        while (this.count > 0) {
+            int index = this.head;
+            Block beingHit = this.blocks[index];
+            Ball hitter = this.hitters[index];
+            this.currentX = this.hitX[index];
+            this.currentY = this.hitY[index];
+            int hitsBefore = this.hitPoints[index];
+            // Release the references, so the removed blocks and balls aren't kept by the buffer.
+            this.blocks[index] = null;
+            this.hitters[index] = null;
+            this.head = (this.head + 1) & (this.blocks.length - 1);
+            this.count--;
+            // A block that had no hit points before the hit isn't destroyed by it, so its listeners aren't notified.
+            if (hitsBefore > 0) {
+                beingHit.setNumOfHits(hitsBefore);
+                for (int i = 0; i < this.listeners.size(); i++) {
+                    this.listeners.get(i).hitEvent(beingHit, hitter);
+                }
+                beingHit.setNumOfHits(hitsBefore - 1);
+            }
+        }
+        this.draining = false;
+        if (!this.pendingAdditions.isEmpty() || !this.pendingRemovals.isEmpty()) {
+            this.listeners.addAll(this.pendingAdditions);
+            this.listeners.removeAll(this.pendingRemovals);
+            this.pendingAdditions.clear();
+            this.pendingRemovals.clear();
+        }
+    } // drain
+
+    /**
+     * @return the number of the hits that weren't drained yet.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * @return the x value of the collision point of the hit that the listeners are notified about.
+     */
+    public double getCurrentX() {
+        return this.currentX;
+    }
+
+    /**
+     * @return the y value of the collision point of the hit that the listeners are notified about.
+     */
+    public double getCurrentY() {
+        return this.currentY;
+    }
+
+    /**
+     * Add a listener that is notified about the hits of all the blocks of the bus.
+     * @param hl the listener.
+     */
+    public void addHitListener(HitListener hl) {
+        if (this.draining) {
+            this.pendingAdditions.add(hl);
+        } else {
+            this.listeners.add(hl);
+        }
+    }
+
+    /**
+     * Remove a listener from the bus.
+     * @param hl the listener.
+     */
+    public void removeHitListener(HitListener hl) {
+        if (this.draining) {
+            this.pendingRemovals.add(hl);
+        } else {
+            this.listeners.remove(hl);
+        }
+    }
+
+} // class HitEventBus
@@ -0,0 +1,28 @@
+package collision;
+
+import levels.GameLevel;
+import sprites.Ball;
+import sprites.Block;
+
+/**
+ * The LayerInvalidator class is in charge of drawing the static layer of the game again after a block is hit,
+ * since the hit may change the background of the block, remove it, or change the score.
+ */
+public class LayerInvalidator implements HitListener {
+    // Declare the members of the class.
+    private GameLevel game;
+
+    /**
+     * Constructor.
+     * @param game the game whose static layer should be drawn again.
+     */
+    public LayerInvalidator(GameLevel game) {
+        this.game = game;
+    }
+
+    @Override
+    public void hitEvent(Block beingHit, Ball hitter) {
+        this.game.invalidateStaticLayer();
+    }
+
+} // class LayerInvalidator
@@ -0,0 +1,289 @@
+package geometry;
+
+/**
+ * The AabbIntersection class contains intersection tests between segments and axis-aligned rectangles (AABB).
+ * The tests work on primitive doubles only (the slab method), so they don't create Point or Line objects.
+ */
+public class AabbIntersection {
+    /*
+     * Epsilon is used to allow some tolerance in the comparison, since numeric computations involving floating
+     * point arithmetic may be imprecise.
+     */
+    private static final double EPSILON = 0.007;
+
+    /**
+     * Check whether the segment hits the rectangle, and if it does - find the first hit along the segment.
+     * If the segment starts inside the rectangle, the hit is the point at which it leaves the rectangle.
+     * @param x1 the x value of the start of the segment.
+     * @param y1 the y value of the start of the segment.
+     * @param x2 the x value of the end of the segment.
+     * @param y2 the y value of the end of the segment.
+     * @param minX the x value of the left edge of the rectangle.
+     * @param minY the y value of the upper edge of the rectangle.
+     * @param maxX the x value of the right edge of the rectangle.
+     * @param maxY the y value of the lower edge of the rectangle.
+     * @param hit the object that the information about the hit is written to (only if there is a hit).
+     * @return true if the segment hits the rectangle, false otherwise.
+     */
+    public static boolean segmentVsAabb(double x1, double y1, double x2, double y2,
+                                        double minX, double minY, double maxX, double maxY, SegmentHit hit) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        // The length of the segment converts the tolerance from pixels to a part of the segment.
+        double tolerance = EPSILON / Math.sqrt(dx * dx + dy * dy);
+        double tEnter = Double.NEGATIVE_INFINITY;
+        double tExit = Double.POSITIVE_INFINITY;
+        int enterFaces = 0;
+        int exitFaces = 0;
+        // The x slab (the strip between the left and the right edges).
+        if (dx == 0) {
+            if (x1 < minX || x1 > maxX) {
+                return false;
+            }
+        } else {
+            double tLeft = (minX - x1) / dx;
+            double tRight = (maxX - x1) / dx;
+            tEnter = dx > 0 ? tLeft : tRight;
+            tExit = dx > 0 ? tRight : tLeft;
+            enterFaces = dx > 0 ? SegmentHit.LEFT : SegmentHit.RIGHT;
+            exitFaces = dx > 0 ? SegmentHit.RIGHT : SegmentHit.LEFT;
+        }
+        // The y slab (the strip between the upper and the lower edges).
+        if (dy == 0) {
+            if (y1 < minY || y1 > maxY) {
+                return false;
+            }
+        } else {
+            double tNear = dy > 0 ? (minY - y1) / dy : (maxY - y1) / dy;
+            double tFar = dy > 0 ? (maxY - y1) / dy : (minY - y1) / dy;
+            int nearFace = dy > 0 ? SegmentHit.TOP : SegmentHit.BOTTOM;
+            int farFace = dy > 0 ? SegmentHit.BOTTOM : SegmentHit.TOP;
+            // If both slabs are entered at the same time, the segment hits a corner (two faces).
+            if (Math.abs(tNear - tEnter) <= tolerance) {
+                enterFaces |= nearFace;
+            } else if (tNear > tEnter) {
+                tEnter = tNear;
+                enterFaces = nearFace;
+            }
+            if (Math.abs(tFar - tExit) <= tolerance) {
+                exitFaces |= farFace;
+            } else if (tFar < tExit) {
+                tExit = tFar;
+                exitFaces = farFace;
+            }
+        }
+        // The segment misses the rectangle, or the rectangle is entered only after the end of the segment.
+        if (tEnter > tExit || tEnter > 1 || tExit < 0) {
+            return false;
+        }
+        if (tEnter >= 0) {
+            hit.set(tEnter, x1 + dx * tEnter, y1 + dy * tEnter, enterFaces);
+            return true;
+        }
+        // Else - the segment starts inside the rectangle, the hit is where it leaves the rectangle.
+        if (tExit > 1) {
+            return false;
+        }
+        hit.set(tExit, x1 + dx * tExit, y1 + dy * tExit, exitFaces);
+        return true;
+    } // segmentVsAabb
+
+    /**
+     * Check whether a circle that moves along the segment hits the rectangle (swept circle against the rectangle
+     * expanded by the radius, with rounded corners), and if it does - find the time of impact.
+     * The hit point is the contact point on the rectangle (a corner of it in a case of a hit in a corner).
+     * If the circle already overlaps the rectangle at the start, it's a hit at t = 0 only if the circle moves into
+     * the rectangle (a circle that moves out of the rectangle is let out).
+     * @param x1 the x value of the start of the movement of the center.
+     * @param y1 the y value of the start of the movement of the center.
+     * @param x2 the x value of the end of the movement of the center.
+     * @param y2 the y value of the end of the movement of the center.
+     * @param radius the radius of the circle.
+     * @param minX the x value of the left edge of the rectangle.
+     * @param minY the y value of the upper edge of the rectangle.
+     * @param maxX the x value of the right edge of the rectangle.
+     * @param maxY the y value of the lower edge of the rectangle.
+     * @param hit the object that the information about the hit is written to (only if there is a hit).
+     * @return true if the circle hits the rectangle, false otherwise.
+     */
+    public static boolean sweptCircleVsAabb(double x1, double y1, double x2, double y2, double radius,
+                                            double minX, double minY, double maxX, double maxY, SegmentHit hit) {
+        if (radius <= 0) {
+            return segmentVsAabb(x1, y1, x2, y2, minX, minY, maxX, maxY, hit);
+        }
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        // The closest point of the rectangle to the start of the movement.
+        double closestX = Math.max(minX, Math.min(maxX, x1));
+        double closestY = Math.max(minY, Math.min(maxY, y1));
+        double distanceSquared = (x1 - closestX) * (x1 - closestX) + (y1 - closestY) * (y1 - closestY);
+        if (distanceSquared < radius * radius) {
+            return overlapHit(x1, y1, dx, dy, closestX, closestY, minX, minY, maxX, maxY, hit);
+        }
+        double bestT = Double.POSITIVE_INFINITY;
+        double t;
+        double contact;
+        // The faces of the expanded rectangle (the hit is valid only in the straight part of the face).
+        if (dx > 0 && x1 <= minX - radius) {
+            t = (minX - radius - x1) / dx;
+            contact = y1 + dy * t;
+            if (t <= 1 && minY <= contact && contact <= maxY) {
+                bestT = t;
+                hit.set(t, minX, contact, facesAt(minX, contact, minX, minY, maxX, maxY));
+            }
+        } else if (dx < 0 && x1 >= maxX + radius) {
+            t = (maxX + radius - x1) / dx;
+            contact = y1 + dy * t;
+            if (t <= 1 && minY <= contact && contact <= maxY) {
+                bestT = t;
+                hit.set(t, maxX, contact, facesAt(maxX, contact, minX, minY, maxX, maxY));
+            }
+        }
+        if (dy > 0 && y1 <= minY - radius) {
+            t = (minY - radius - y1) / dy;
+            contact = x1 + dx * t;
+            if (t <= 1 && t < bestT && minX <= contact && contact <= maxX) {
+                bestT = t;
+                hit.set(t, contact, minY, facesAt(contact, minY, minX, minY, maxX, maxY));
+            }
+        } else if (dy < 0 && y1 >= maxY + radius) {
+            t = (maxY + radius - y1) / dy;
+            contact = x1 + dx * t;
+            if (t <= 1 && t < bestT && minX <= contact && contact <= maxX) {
+                bestT = t;
+                hit.set(t, contact, maxY, facesAt(contact, maxY, minX, minY, maxX, maxY));
+            }
+        }
+        // The rounded corners of the expanded rectangle.
+        bestT = cornerHit(x1, y1, dx, dy, radius, minX, minY, SegmentHit.LEFT | SegmentHit.TOP, bestT, hit);
+        bestT = cornerHit(x1, y1, dx, dy, radius, maxX, minY, SegmentHit.RIGHT | SegmentHit.TOP, bestT, hit);
+        bestT = cornerHit(x1, y1, dx, dy, radius, minX, maxY, SegmentHit.LEFT | SegmentHit.BOTTOM, bestT, hit);
+        bestT = cornerHit(x1, y1, dx, dy, radius, maxX, maxY, SegmentHit.RIGHT | SegmentHit.BOTTOM, bestT, hit);
+        return bestT <= 1;
+    } // sweptCircleVsAabb
+
+    /**
+     * Find the hit of a circle that moves along a segment with a circle of the given radius around a corner.
+     * @param x1 the x value of the start of the movement of the center.
+     * @param y1 the y value of the start of the movement of the center.
+     * @param dx the change on the x-axis along the movement.
+     * @param dy the change on the y-axis along the movement.
+     * @param radius the radius of the moving circle.
+     * @param cornerX the x value of the corner.
+     * @param cornerY the y value of the corner.
+     * @param faces the two faces of the rectangle that meet at the corner.
+     * @param bestT the time of the closest hit that was found so far.
+     * @param hit the object that the information about the hit is written to (only if the hit is closer).
+     * @return the time of the closest hit (the given bestT if the corner isn't hit before it).
+     */
+    private static double cornerHit(double x1, double y1, double dx, double dy, double radius,
+                                    double cornerX, double cornerY, int faces, double bestT, SegmentHit hit) {
+        // Solve |start + t * d - corner| = radius, which is a quadratic equation a*t^2 + 2*b*t + c = 0.
+        double fx = x1 - cornerX;
+        double fy = y1 - cornerY;
+        double a = dx * dx + dy * dy;
+        double b = fx * dx + fy * dy;
+        double c = fx * fx + fy * fy - radius * radius;
+        double discriminant = b * b - a * c;
+        // The circle doesn't move, moves away from the corner or misses it.
+        if (a == 0 || b >= 0 || discriminant < 0) {
+            return bestT;
+        }
+        double t = (-b - Math.sqrt(discriminant)) / a;
+        if (t < 0 || t > 1 || t >= bestT) {
+            return bestT;
+        }
+        // The hit counts only in the rounded part (the center is outside the rectangle on both axes).
+        double centerX = x1 + dx * t;
+        double centerY = y1 + dy * t;
+        boolean outsideX = (faces & SegmentHit.LEFT) != 0 ? centerX < cornerX : centerX > cornerX;
+        boolean outsideY = (faces & SegmentHit.TOP) != 0 ? centerY < cornerY : centerY > cornerY;
+        if (!outsideX || !outsideY) {
+            return bestT;
+        }
+        hit.set(t, cornerX, cornerY, faces);
+        return t;
+    } // cornerHit
+
+    /**
+     * Find the hit of a circle that already overlaps the rectangle at the start of its movement.
+     * @param x1 the x value of the center of the circle.
+     * @param y1 the y value of the center of the circle.
+     * @param dx the change on the x-axis along the movement.
+     * @param dy the change on the y-axis along the movement.
+     * @param closestX the x value of the closest point of the rectangle to the center.
+     * @param closestY the y value of the closest point of the rectangle to the center.
+     * @param minX the x value of the left edge of the rectangle.
+     * @param minY the y value of the upper edge of the rectangle.
+     * @param maxX the x value of the right edge of the rectangle.
+     * @param maxY the y value of the lower edge of the rectangle.
+     * @param hit the object that the information about the hit is written to (only if there is a hit).
+     * @return true if the circle moves into the rectangle (a hit at t = 0), false if it moves out of it.
+     */
+    private static boolean overlapHit(double x1, double y1, double dx, double dy, double closestX, double closestY,
+                                      double minX, double minY, double maxX, double maxY, SegmentHit hit) {
+        double normalX = x1 - closestX;
+        double normalY = y1 - closestY;
+        int faces = facesAt(closestX, closestY, minX, minY, maxX, maxY);
+        // If the center is inside the rectangle, the way out is through the edge with the smallest penetration.
+        if (normalX == 0 && normalY == 0) {
+            double toLeft = x1 - minX;
+            double toRight = maxX - x1;
+            double toTop = y1 - minY;
+            double toBottom = maxY - y1;
+            double smallest = Math.min(Math.min(toLeft, toRight), Math.min(toTop, toBottom));
+            if (smallest == toLeft) {
+                normalX = -1;
+                closestX = minX;
+                faces = SegmentHit.LEFT;
+            } else if (smallest == toRight) {
+                normalX = 1;
+                closestX = maxX;
+                faces = SegmentHit.RIGHT;
+            } else if (smallest == toTop) {
+                normalY = -1;
+                closestY = minY;
+                faces = SegmentHit.TOP;
+            } else {
+                normalY = 1;
+                closestY = maxY;
+                faces = SegmentHit.BOTTOM;
+            }
+        }
+        // A circle that moves out of the rectangle (or along it) is not hit.
+        if (dx * normalX + dy * normalY >= 0) {
+            return false;
+        }
+        hit.set(0, closestX, closestY, faces);
+        return true;
+    } // overlapHit
+
+    /**
+     * @param x the x value of the point.
+     * @param y the y value of the point.
+     * @param minX the x value of the left edge of the rectangle.
+     * @param minY the y value of the upper edge of the rectangle.
+     * @param maxX the x value of the right edge of the rectangle.
+     * @param maxY the y value of the lower edge of the rectangle.
+     * @return the faces of the rectangle that the point is on (0 if the point is not on the edges).
+     */
+    public static int facesAt(double x, double y, double minX, double minY, double maxX, double maxY) {
+        int faces = 0;
+        boolean inXRange = minX - EPSILON <= x && x <= maxX + EPSILON;
+        boolean inYRange = minY - EPSILON <= y && y <= maxY + EPSILON;
+        if (inYRange && Math.abs(x - minX) <= EPSILON) {
+            faces |= SegmentHit.LEFT;
+        }
+        if (inYRange && Math.abs(x - maxX) <= EPSILON) {
+            faces |= SegmentHit.RIGHT;
+        }
+        if (inXRange && Math.abs(y - minY) <= EPSILON) {
+            faces |= SegmentHit.TOP;
+        }
+        if (inXRange && Math.abs(y - maxY) <= EPSILON) {
+            faces |= SegmentHit.BOTTOM;
+        }
+        return faces;
+    } // facesAt
+
+} // class AabbIntersection
@@ -0,0 +1,65 @@
+package geometry;
+
+/**
+ * The BoundingBox class represents an axis-aligned box by the primitive values of its edges (min and max x and y).
+ * The box is immutable, so it can be computed once and shared, and reading its edges doesn't create any objects.
+ */
+public class BoundingBox {
+    // Declare the members of the class.
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+
+    /**
+     * Constructor.
+     * @param minX the x value of the left edge of the box.
+     * @param minY the y value of the upper edge of the box.
+     * @param maxX the x value of the right edge of the box.
+     * @param maxY the y value of the lower edge of the box.
+     */
+    public BoundingBox(double minX, double minY, double maxX, double maxY) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Constructor - create the box of the given rectangle.
+     * @param rec the rectangle that the box is computed from.
+     */
+    public BoundingBox(Rectangle rec) {
+        this(rec.getUpperLeft().getX(), rec.getUpperLeft().getY(), rec.getUpperLeft().getX() + rec.getWidth(),
+            rec.getUpperLeft().getY() + rec.getHeight());
+    }
+
+    /**
+     * @return the x value of the left edge of the box.
+     */
+    public double getMinX() {
+        return this.minX;
+    }
+
+    /**
+     * @return the y value of the upper edge of the box.
+     */
+    public double getMinY() {
+        return this.minY;
+    }
+
+    /**
+     * @return the x value of the right edge of the box.
+     */
+    public double getMaxX() {
+        return this.maxX;
+    }
+
+    /**
+     * @return the y value of the lower edge of the box.
+     */
+    public double getMaxY() {
+        return this.maxY;
+    }
+
+} // class BoundingBox
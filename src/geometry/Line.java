@@ -4,6 +4,10 @@ package geometry;
  * The Line class represents a line segment in an axis system. A line has a start point and an end point.
  */
 public class Line {
+    // The tolerance (in pixels) of the intersection tests, since floating point arithmetic may be imprecise.
+    private static final double EPSILON = 0.007;
+    // Two segments are parallel if the sine of the angle between them is smaller than this number.
+    private static final double PARALLEL_EPSILON = 1e-9;
     // Declare the members of the class.
     private Point start;
     private Point end;
@@ -81,39 +85,6 @@ public class Line {
         return this.end;
     }
 
-    /**
-     * @param other another line that it is checked whether it's parallel to y-axis.
-     * @return 1 if both of the lines are parallel to y-axis, 2 if only the current line is parallel to y-axis,
-     * 3 if only the other line is parallel to y-axis, and 4 if neither the current line nor the other line are
-     * parallel to y-axis.
-     */
-    private int isParallelToY(Line other) {
-        // If the current line is parallel to y axis (the x values of the start point and the end point are equal).
-        if (this.start.getX() == this.end.getX()) {
-            // If the other line is also parallel to y axis, return 1.
-            if (other.start.getX() == other.end.getX()) {
-                return 1;
-            // Else - the current line is parallel to y-axis and the other line is not parallel to y-axis, return 2.
-            } else {
-                return 2;
-            }
-        // Else - if the current line is not parallel to y-axis, but the other is parallel to y-axis, return 3.
-        } else if (other.start.getX() == other.end.getX()) {
-            return 3;
-        // Else - neither the current line nor the other line are parallel to y axis, return 4.
-        } else {
-            return 4;
-        }
-    } // isParallelToY
-
-   /**
-    * @return the slope of a line
-    */
-    private double slope() {
-        // Return the slope of the given line (by using the formula: m = (y2-y1)/(x2-x1) ).
-        return (this.end.getY() - this.start.getY()) / (this.end.getX() - this.start.getX());
-    }
-
     /**
      * @param x the x value of the point that it's checked whether it's in the segment.
      * @param y the y value of the point that it's checked whether it's in the segment.
@@ -162,107 +133,109 @@ public class Line {
         }
     }
 
-   /**
-    * @param other another line that it's checked what is the intersection point between it and the current line,
-    * if the lines intersect.
-    * @return the intersection point if the lines intersect, null otherwise.
-    */
-    private Point interCurrentParallelToY(Line other) {
-        /*
-         * The current line is parallel to y axis (it also may be a single point), and the other line is not.
-         * Calculate what is the intersection point between the lines, if the lines intersect.
-         * If they do intersect, check also whether the intersection points are in the segments.
-         */
-
-        // The equation of the current line is x=b1 (parallel to y-axis).
-        double b1 = this.start.getX();
-        // The equation of the other line is y=m2x+b2.
-        double x2 = other.start.getX(); // The x value of the point that is on the line.
-        double y2 = other.start.getY(); // The y value of the point that is on the line.
-        double m2 = other.slope(); // The slope of the line.
-        double b2 = y2 - m2 * x2; // The y value of the intersection with y-axis.
-        // To find the x value of the intersection point, the equation is: b1=m2x+b2 --->  x=(b1-b2)/m2.
-        double intersectionX = b1;
-        // To find the y value of the intersection point, the equation is: y=m2x+b2.
-        double intersectionY = m2 * intersectionX + b2;
-        // Check whether the intersection point of the lines is also in the segments.
-        if (this.isInTheSegment(intersectionX, intersectionY)
-            && other.isInTheSegment(intersectionX, intersectionY)) {
-                return new Point(intersectionX, intersectionY);
-        // Else - the intersection point of the lines is not in the segments, return null.
-        } else {
-            return null;
-        }
-    } // interCurrentParallelToY
-
     /**
-     * @param other the other line that it will be checked what is the intersection point
-     * between it and the current point, if the lines intersect.
-     * @return the intersection point if the lines intersect, and null otherwise.
+     * Find the intersection of the current segment and the other segment in one pass, by the parametric form of the
+     * segments: start + t * (end - start) on the current segment and start + u * (end - start) on the other one.
+     * The parameters are found by cross products, so there is no slope and no division by a number that is close
+     * to zero. If the segments are collinear and overlap, the overlap point that is the closest to the start of the
+     * current segment is returned.
+     * @param other the other segment.
+     * @param result the object that the parameters and the intersection point are written to (if they intersect).
+     * @return true if the segments intersect, false otherwise.
      */
-    private Point interOtherParallelToY(Line other) {
-        /*
-         * The other line is parallel to y axis (it also can be a single point), and the current line is not.
-         * The method calculates what is the intersection point between the lines, if the lines intersect.
-         * If they do, it also checks whether the intersection points is in the segments.
-         */
-        // The equation of the other line is x=b2 (parallel to y axis).
-        double b2 = other.start.getX();
-        // The equation of the current line is y=m1x+b1.
-        double x1 = this.start.getX(); // x value of the point that is on the line.
-        double y1 = this.start.getY(); // y value of the point that is on the line.
-        double m1 = this.slope(); // the slope of the line.
-        double b1 = y1 - m1 * x1; //the y value of the intersection with y axis.
-        // In order to find the x value intersection point, the equation is: b2=m1x+b1 --->  x=(b2-b1)/m1.
-        double intersectionX = b2;
-        // In order to find the y value intersection point, the equation is: y=m1x+b1.
-        double intersectionY = m1 * intersectionX + b1;
-        // Check whether the intersection point of the lines is also in the segments.
-        if (this.isInTheSegment(intersectionX, intersectionY)
-            && other.isInTheSegment(intersectionX, intersectionY)) {
-                return new Point(intersectionX, intersectionY);
-        } else {
-            // else the intersection point of the lines is not in the segments, return null.
-            return null;
+    public boolean intersectionParameters(Line other, SegmentIntersection result) {
+        double x1 = this.start.getX();
+        double y1 = this.start.getY();
+        double x3 = other.start.getX();
+        double y3 = other.start.getY();
+        // The direction of each segment (r for the current one and s for the other one).
+        double rx = this.end.getX() - x1;
+        double ry = this.end.getY() - y1;
+        double sx = other.end.getX() - x3;
+        double sy = other.end.getY() - y3;
+        // The vector from the start of the current segment to the start of the other one.
+        double qx = x3 - x1;
+        double qy = y3 - y1;
+        double rr = rx * rx + ry * ry;
+        double ss = sx * sx + sy * sy;
+        // If one of the segments is a single point, check whether the point is on the other segment.
+        if (rr == 0 || ss == 0) {
+            return pointIntersection(this, other, rr, ss, result);
+        }
+        double denominator = rx * sy - ry * sx;
+        // If the segments aren't parallel (the sine of the angle between them isn't close to zero).
+        if (denominator * denominator > PARALLEL_EPSILON * PARALLEL_EPSILON * rr * ss) {
+            double t = (qx * sy - qy * sx) / denominator;
+            double u = (qx * ry - qy * rx) / denominator;
+            // The tolerance on each parameter is EPSILON along the segment.
+            double toleranceT = EPSILON / Math.sqrt(rr);
+            double toleranceU = EPSILON / Math.sqrt(ss);
+            if (t < -toleranceT || t > 1 + toleranceT || u < -toleranceU || u > 1 + toleranceU) {
+                return false;
+            }
+            t = Math.max(0, Math.min(1, t));
+            u = Math.max(0, Math.min(1, u));
+            result.set(t, u, x1 + t * rx, y1 + t * ry);
+            return true;
+        }
+        // The segments are parallel - they intersect only if they are on the same line (collinear) and overlap.
+        double distance = (qx * ry - qy * rx) / Math.sqrt(rr);
+        if (Math.abs(distance) > EPSILON) {
+            return false;
+        }
+        // The parameters of the start and the end of the other segment on the current segment.
+        double t0 = (qx * rx + qy * ry) / rr;
+        double t1 = t0 + (sx * rx + sy * ry) / rr;
+        double toleranceT = EPSILON / Math.sqrt(rr);
+        double overlapStart = Math.max(0, Math.min(t0, t1));
+        double overlapEnd = Math.min(1, Math.max(t0, t1));
+        if (overlapStart > overlapEnd + toleranceT) {
+            return false;
         }
-    } // interOtherParallelToY
+        double t = Math.min(overlapStart, 1);
+        double interX = x1 + t * rx;
+        double interY = y1 + t * ry;
+        double u = Math.max(0, Math.min(1, ((interX - x3) * sx + (interY - y3) * sy) / ss));
+        result.set(t, u, interX, interY);
+        return true;
+    } // intersectionParameters
 
     /**
-     * @param other the other line that it will be checked what is the intersection point between it and the current
-     * point, if the lines intersect.
-     * @return the intersection point if the lines intersect, and null otherwise.
+     * Find the intersection of two segments, where at least one of them is a single point.
+     * @param first the first segment.
+     * @param second the second segment.
+     * @param firstSquaredLength the squared length of the first segment.
+     * @param secondSquaredLength the squared length of the second segment.
+     * @param result the object that the parameters and the intersection point are written to (if they intersect).
+     * @return true if the segments intersect, false otherwise.
      */
-    private Point interDifferentSlopes(Line other) {
-        if (this.slope() != other.slope()) {
-            // The equation line of the current line: y=m1x+b1
-            double x1 = this.start.getX();
-            double y1 = this.start.getY();
-            double m1 = this.slope();
-            double b1 = y1 - m1 * x1;
-            // The equation line of the current line: y=m2x+b2
-            double x2 = other.start.getX();
-            double y2 = other.start.getY();
-            double m2 = other.slope();
-            double b2 = y2 - m2 * x2;
-            /*
-             * In order to find the x value intersection point,
-             * the equation is: m1x+b1=m2x+b2 --->  x=(b2-b1)/(m1-m2).
-             */
-            double intersectionX = (b2 - b1) / (m1 - m2);
-            // In order to find the y value intersection point, the equation is: y=m1x+b1.
-            double intersectionY = m1 * intersectionX + b1;
-            if (this.isInTheSegment(intersectionX, intersectionY)
-            && other.isInTheSegment(intersectionX, intersectionY)) {
-                return new Point(intersectionX, intersectionY);
-            // else- the intersection point of the lines is not in the segments, return null.
-            } else {
-                return null;
-            }
-        // else- the lines don't have the same slope, they don't intersect - return null.
+    private static boolean pointIntersection(Line first, Line second, double firstSquaredLength,
+                                             double secondSquaredLength, SegmentIntersection result) {
+        // The segment that is a single point, and the segment that the point is checked against.
+        Point point = firstSquaredLength == 0 ? first.start : second.start;
+        Line segment = firstSquaredLength == 0 ? second : first;
+        double squaredLength = firstSquaredLength == 0 ? secondSquaredLength : firstSquaredLength;
+        // The parameter of the closest point of the segment to the point.
+        double parameter = 0;
+        if (squaredLength != 0) {
+            parameter = ((point.getX() - segment.start.getX()) * (segment.end.getX() - segment.start.getX())
+                + (point.getY() - segment.start.getY()) * (segment.end.getY() - segment.start.getY())) / squaredLength;
+            parameter = Math.max(0, Math.min(1, parameter));
+        }
+        double closestX = segment.start.getX() + parameter * (segment.end.getX() - segment.start.getX());
+        double closestY = segment.start.getY() + parameter * (segment.end.getY() - segment.start.getY());
+        double dx = point.getX() - closestX;
+        double dy = point.getY() - closestY;
+        if (dx * dx + dy * dy > EPSILON * EPSILON) {
+            return false;
+        }
+        if (firstSquaredLength == 0) {
+            result.set(0, parameter, point.getX(), point.getY());
         } else {
-            return null;
+            result.set(parameter, 0, point.getX(), point.getY());
         }
-    } // interDifferentSlopes
+        return true;
+    } // pointIntersection
 
     /**
      * @param other the other line it's checked what is the intersection point between it and the current point,
@@ -270,34 +243,11 @@ public class Line {
      * @return the intersection point if the lines intersect, null otherwise.
      */
     public Point intersectionWith(Line other) {
-        // First, check whether (at least) one of the lines is parallel to y-axis.
-        int result = this.isParallelToY(other);
-        // If both the current and the other line are parallel to y-axis.
-        if (result == 1) {
-            // The lines intersect only if both of them are points and they both are the same point.
-            if (this.start.equals(this.end) && this.equals(other)) {
-                return this.start;
-            // Else - the lines don't intersect, return null.
-            } else {
-                return null;
-            }
-        // Else - if the current line is parallel to y-axis and the other line is not parallel to y-axis.
-        } else if (result == 2) {
-            // Use interCurrentParallelToY method, to check whether the lines intersect in this case.
-            return this.interCurrentParallelToY(other);
-        // Else - if the current line is not parallel to y-axis and the other line is parallel to y-axis.
-        } else if (result == 3) {
-            // Use interOtherParallelToY method to check whether the lines intersect in this case.
-            return this.interOtherParallelToY(other);
-        // Else - neither the current line nor the other line are parallel to y-axis.
-        } else {
-            /*
-             * Only if the lines don't have the same slope, they can intersect.
-             * If the lines intersect and the intersection point is not in the segments, return null.
-             * If the lines don't have the same slope, they don't intersect, return null.
-             */
-            return (interDifferentSlopes(other));
+        SegmentIntersection result = new SegmentIntersection();
+        if (this.intersectionParameters(other, result)) {
+            return new Point(result.getX(), result.getY());
         }
+        return null;
     } // intersectionWith
 
     /**
@@ -305,11 +255,7 @@ public class Line {
      * @return true if the lines intersect, false otherwise
      */
     public boolean isIntersecting(Line other) {
-        /*
-         * Return true if the lines intersect, false otherwise. Uses the intersectionWith method - if it returns
-         * a point return true, otherwise - return false.
-         */
-        return this.intersectionWith(other) != null;
+        return this.intersectionParameters(other, new SegmentIntersection());
     }
 
     /**
@@ -321,42 +267,6 @@ public class Line {
         return (this.start.equals(other.start) && this.end.equals(other.end));
     }
 
-    /**
-     * @param rect the rectangle that it's checked whether the current line intersects with.
-     * @param edge the edge of the rectangle that it's checked whether the current line intersects with.
-     * @param closestInterPoint - the current closest intersection point.
-     * @return the closest intersection point to the start of the line, if they intersect.
-     * If the given line does not intersect with the rectangle, return null.
-     */
-    private Point isCloserInterPoint(Rectangle rect, Line edge, Point closestInterPoint) {
-        Point intersectionPoint;
-        double distanceToInter;
-        // If the given edge intersects with the line
-        if (this.isIntersecting(edge)) {
-            // If there is no closest intersection point yet.
-            if (closestInterPoint == null) {
-                // Return the intersection point with the given edge. In the worst case it will also be null,
-                // and in the best case there will be a collision.
-                return this.intersectionWith(edge);
-            // If the closest point is not null, check whether the collision with the given edge is closer.
-            } else {
-                double distanceToClosest = this.start.distance(closestInterPoint);
-                intersectionPoint = this.intersectionWith(edge);
-                distanceToInter = this.start().distance(intersectionPoint);
-                // If the collision with the given edge is closer - return it.
-                if (distanceToInter < distanceToClosest) {
-                    return intersectionPoint;
-                // Else - return the original closest collision that was sent as an argument.
-                } else {
-                     return closestInterPoint;
-                }
-            }
-        // Else - the given edge doesn't intersect with the line, return the original closest collision.
-        } else {
-            return closestInterPoint;
-        }
-    } // isCloserInterPoint
-
     /**
      * @param rect the rectangle that it's checked whether it intersects with the current line, and if they do,
      * it's checked what is the closest intersection point to the start of the current line.
@@ -364,31 +274,16 @@ public class Line {
      * If the line doesn't intersect with the rectangle, return null.
      */
     public Point closestIntersectionToStartOfLine(Rectangle rect) {
-        // Get the lengths of the rectangle.
-        Line leftEdge = rect.getLeftEdge();
-        Line rightEdge = rect.getRightEdge();
-        Line upperEdge = rect.getUpperEdge();
-        Line lowerEdge = rect.getLowerEdge();
-        // Initialize the closest point to be the intersection with the left edge (it may be null).
-        Point closestInterPoint = this.intersectionWith(leftEdge);
-        /*
-         *  Check which intersection point between the rectangle and the line is the closest to the start of
-         *  the line (if they intersect).
-         */
-        if (closestInterPoint == null) {
-            closestInterPoint = this.intersectionWith(rightEdge);
-        } else {
-            closestInterPoint =  isCloserInterPoint(rect, rightEdge, closestInterPoint);
-        }
-        if (closestInterPoint == null) {
-            closestInterPoint = this.intersectionWith(upperEdge);
-        } else {
-            closestInterPoint =  isCloserInterPoint(rect, upperEdge, closestInterPoint);
-        }
-        if (closestInterPoint == null) {
-            closestInterPoint = this.intersectionWith(lowerEdge);
-        } else {
-            closestInterPoint =  isCloserInterPoint(rect, lowerEdge, closestInterPoint);
+        Line[] edges = {rect.getLeftEdge(), rect.getRightEdge(), rect.getUpperEdge(), rect.getLowerEdge()};
+        SegmentIntersection current = new SegmentIntersection();
+        Point closestInterPoint = null;
+        double closestT = Double.POSITIVE_INFINITY;
+        // The closest intersection point to the start of the line is the one with the smallest parameter on the line.
+        for (Line edge : edges) {
+            if (this.intersectionParameters(edge, current) && current.getT() < closestT) {
+                closestT = current.getT();
+                closestInterPoint = new Point(current.getX(), current.getY());
+            }
         }
         return closestInterPoint;
     }  // closestIntersectionToStartOfLine
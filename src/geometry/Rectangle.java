@@ -109,23 +109,13 @@ public class Rectangle {
     public List<Point> intersectionPoints(Line line) {
         // Define the list of the intersection points with the line.
         List<Point> intersectionPoints = new ArrayList<>();
-        // Find the edges of the rectangle
-        Line leftEdge = getLeftEdge();
-        Line rightEdge = getRightEdge();
-        Line upperEdge = getUpperEdge();
-        Line lowerEdge = getLowerEdge();
+        Line[] edges = {getLeftEdge(), getRightEdge(), getUpperEdge(), getLowerEdge()};
+        SegmentIntersection intersection = new SegmentIntersection();
         // Add the intersection points of the given line with the edges of the rectangle to the list.
-        if (line.isIntersecting(leftEdge)) {
-            intersectionPoints.add(line.intersectionWith(leftEdge));
-        }
-        if (line.isIntersecting(rightEdge)) {
-            intersectionPoints.add(line.intersectionWith(rightEdge));
-        }
-        if (line.isIntersecting(upperEdge)) {
-            intersectionPoints.add(line.intersectionWith(upperEdge));
-        }
-        if (line.isIntersecting(lowerEdge)) {
-            intersectionPoints.add(line.intersectionWith(lowerEdge));
+        for (Line edge : edges) {
+            if (line.intersectionParameters(edge, intersection)) {
+                intersectionPoints.add(new Point(intersection.getX(), intersection.getY()));
+            }
         }
         return intersectionPoints;
     }
@@ -0,0 +1,71 @@
+package geometry;
+
+/**
+ * The SegmentHit class holds the result of an intersection test between a segment and an axis-aligned rectangle:
+ * the part of the segment (t) at which the rectangle is hit, the hit point and the faces of the rectangle that were
+ * hit. The object is mutable, so a single instance can be reused by every test and no objects are allocated.
+ */
+public class SegmentHit {
+    // The faces of the rectangle (they are bit flags, since a corner hit is a hit of two faces).
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int TOP = 4;
+    public static final int BOTTOM = 8;
+
+    // Declare the members of the class.
+    private double t;
+    private double x;
+    private double y;
+    private int faces;
+
+    /**
+     * Set the values of the hit.
+     * @param hitT the part of the segment at which the hit occurs (0 is the start of the segment, 1 is the end).
+     * @param hitX the x value of the hit point.
+     * @param hitY the y value of the hit point.
+     * @param hitFaces the faces of the rectangle that were hit.
+     */
+    public void set(double hitT, double hitX, double hitY, int hitFaces) {
+        this.t = hitT;
+        this.x = hitX;
+        this.y = hitY;
+        this.faces = hitFaces;
+    }
+
+    /**
+     * Copy the values of another hit to the current hit.
+     * @param other the hit that should be copied.
+     */
+    public void copy(SegmentHit other) {
+        this.set(other.t, other.x, other.y, other.faces);
+    }
+
+    /**
+     * @return the part of the segment at which the hit occurs (0 is the start of the segment, 1 is the end).
+     */
+    public double getT() {
+        return this.t;
+    }
+
+    /**
+     * @return the x value of the hit point.
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * @return the y value of the hit point.
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * @return the faces of the rectangle that were hit (a combination of LEFT, RIGHT, TOP and BOTTOM).
+     */
+    public int getFaces() {
+        return this.faces;
+    }
+
+} // class SegmentHit
@@ -0,0 +1,58 @@
+package geometry;
+
+/**
+ * The SegmentIntersection class holds the result of an intersection test between two segments: the parameter of the
+ * intersection point on each of the segments (t on the first one and u on the second one, where 0 is the start of
+ * the segment and 1 is its end) and the intersection point itself. The object is mutable, so a single instance can
+ * be reused by every test.
+ */
+public class SegmentIntersection {
+    // Declare the members of the class.
+    private double t;
+    private double u;
+    private double x;
+    private double y;
+
+    /**
+     * Set the values of the intersection.
+     * @param interT the parameter of the intersection point on the first segment.
+     * @param interU the parameter of the intersection point on the second segment.
+     * @param interX the x value of the intersection point.
+     * @param interY the y value of the intersection point.
+     */
+    public void set(double interT, double interU, double interX, double interY) {
+        this.t = interT;
+        this.u = interU;
+        this.x = interX;
+        this.y = interY;
+    }
+
+    /**
+     * @return the parameter of the intersection point on the first segment (0 is its start, 1 is its end).
+     */
+    public double getT() {
+        return this.t;
+    }
+
+    /**
+     * @return the parameter of the intersection point on the second segment (0 is its start, 1 is its end).
+     */
+    public double getU() {
+        return this.u;
+    }
+
+    /**
+     * @return the x value of the intersection point.
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * @return the y value of the intersection point.
+     */
+    public double getY() {
+        return this.y;
+    }
+
+} // class SegmentIntersection
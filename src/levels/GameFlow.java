@@ -1,6 +1,7 @@
 package levels;
 import java.util.List;
 import animation.AnimationRunner;
+import arkanoidgame.ConcurrentCounter;
 import arkanoidgame.Counter;
 import biuoop.DialogManager;
 import biuoop.KeyboardSensor;
@@ -30,33 +31,45 @@ public class GameFlow {
         this.animationRunner = animationRunner;
         this.keyboard = keyboard;
         this.dialogManager = dialogManager;
-        // Initialize the score and the number of lives.
-        this.gameScore = new Counter(0);
-        this.lives = new Counter(7);
+        // Initialize the score and the number of lives (they are updated by the game and read by the HUD, that may be
+        // drawn by another thread).
+        this.gameScore = new ConcurrentCounter(0);
+        this.lives = new ConcurrentCounter(7);
         this.highScoresTable = highScoresTable;
     }
 
     /**
+     * @return the score of the game.
+     */
+    public int getScore() {
+        return this.gameScore.getValue();
+    }
+
+    /**
+     * Run the levels one after the other. The next level is created in the background while a level is played.
      * @param levels a list of LevelInformation objects (the information of each level).
      */
     public void runLevels(List<LevelInformation> levels) {
         int score;
         Tools tools = new Tools();
-        for (LevelInformation levelInfo : levels) {
-            GameLevel level = new GameLevel(levelInfo, this.keyboard, this.animationRunner,
-                this.gameScore, this.lives);
-            // Initialize the game.
-            level.initialize();
-            // As long as there are more blocks in the current level and there are still lives, run the game.
-            while (level.getBlocksNumber() > 0 && level.getLivesNumber() > 0) {
-                level.playOneTurn();
-            }
-            // If the number of lives is 0, end the game.
-            if (level.getLivesNumber() == 0) {
-                score = this.gameScore.getValue();
-                tools.endOfGameAnimations(this.animationRunner, this.highScoresTable,
-                        score, false, this.dialogManager);
-                return;
+        try (LevelPrefetcher prefetcher = new LevelPrefetcher(levels)) {
+            for (int i = 0; i < prefetcher.size(); i++) {
+                LevelInformation levelInfo = prefetcher.take(i);
+                GameLevel level = new GameLevel(levelInfo, this.keyboard, this.animationRunner,
+                    this.gameScore, this.lives);
+                // Initialize the game.
+                level.initialize();
+                // As long as there are more blocks in the current level and there are still lives, run the game.
+                while (level.getBlocksNumber() > 0 && level.getLivesNumber() > 0) {
+                    level.playOneTurn();
+                }
+                // If the number of lives is 0, end the game.
+                if (level.getLivesNumber() == 0) {
+                    score = this.gameScore.getValue();
+                    tools.endOfGameAnimations(this.animationRunner, this.highScoresTable,
+                            score, false, this.dialogManager);
+                    return;
+                }
             }
         }
         score = this.gameScore.getValue();
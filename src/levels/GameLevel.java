@@ -1,10 +1,11 @@
 package levels;
 import java.awt.Color;
 
-import animation.Animation;
 import animation.AnimationRunner;
 import animation.CountdownAnimation;
 import animation.PauseScreenAnimation;
+import animation.SteppedAnimation;
+import arkanoidgame.ConcurrentCounter;
 import arkanoidgame.Counter;
 import arkanoidgame.GameEnvironment;
 import arkanoidgame.LivesIndicator;
@@ -16,23 +17,29 @@ import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
 import collision.BallRemover;
 import collision.BlockRemover;
+import collision.HitEventBus;
 import collision.Collidable;
+import collision.LayerInvalidator;
 import geometry.Line;
 import geometry.Point;
 import sprites.Ball;
+import sprites.BallSystem;
 import sprites.Block;
-import sprites.Colors;
+import sprites.Palette;
 import sprites.Sprite;
 import sprites.SpriteCollection;
+import sprites.TileMap;
 
 /**
  * The Game class is responsible to hold the sprites & collidables, and in charge of the animation.
  */
-public class GameLevel implements Animation {
+public class GameLevel implements SteppedAnimation {
     // Declare the members of the class.
     private DrawSurface drawSurface;
     private SpriteCollection sprites = new SpriteCollection();
-    private GameEnvironment environment = new GameEnvironment();
+    private GameEnvironment environment = new GameEnvironment(SURFACE_WIDTH, SURFACE_HEIGHT, BALL_RADIUS);
+    // The balls of the level (all of them are moved in one loop).
+    private BallSystem balls = new BallSystem(this.environment);
     private AnimationRunner runner;
     private boolean running;
     private LevelInformation levelInformation;
@@ -42,6 +49,8 @@ public class GameLevel implements Animation {
     private Counter numberOfLives;
     private Paddle paddle;
     private KeyboardSensor keyboard;
+    // The hits of the blocks of the level, that are passed to the listeners of the level once in each step.
+    private HitEventBus hitEvents = new HitEventBus(this.environment);
 
     // Set some sizes as constants.
     public static final int SURFACE_WIDTH = 800;
@@ -49,6 +58,7 @@ public class GameLevel implements Animation {
     public static final int SIDES_BORDERS_WIDTH = 25;
     public static final int UP_DOWN_BORDERS_HEIGHT = 30;
     public static final int PADDLE_HEIGHT = 20;
+    public static final int BALL_RADIUS = 5;
 
     /**
      * Constructor.
@@ -64,11 +74,17 @@ public class GameLevel implements Animation {
         // Get a draw surface to draw on.
         this.drawSurface = this.runner.getDrawSurface();
         this.levelInformation = levelInformation;
-        this.blocksCounter = new Counter(levelInformation.numberOfBlocksToRemove());
-        this.ballsCounter = new Counter(0);
+        this.blocksCounter = new ConcurrentCounter(levelInformation.numberOfBlocksToRemove());
+        this.ballsCounter = new ConcurrentCounter(0);
         this.gameScore = gameScore;
         numberOfLives = lives;
         this.keyboard = keyboard;
+        // The listeners of the hits are shared by all the blocks of the level: BlockRemover removes the blocks and
+        // counts the remaining blocks, ScoreTrackingListener updates the score, and LayerInvalidator draws the
+        // static layer again.
+        this.hitEvents.addHitListener(new BlockRemover(this, this.blocksCounter));
+        this.hitEvents.addHitListener(new ScoreTrackingListener(this.gameScore));
+        this.hitEvents.addHitListener(new LayerInvalidator(this));
         // Set the borders blocks (the same borders in each level).
         setBordersBlocks();
         // Set the info block at the top of the screen (and draw on it the name of the level).
@@ -95,6 +111,22 @@ public class GameLevel implements Animation {
         this.environment.addCollidable(c);
     }
 
+    /**
+     * Add the given moving collidable (a collidable that changes its position) to the game environment.
+     * @param c the moving collidable object that should be added to the game environment.
+     */
+    public void addMovingCollidable(Collidable c) {
+        this.environment.addMovingCollidable(c);
+    }
+
+    /**
+     * Add the given map of blocks to the game environment.
+     * @param tileMap the map of blocks that should be added to the game environment.
+     */
+    public void addTileMap(TileMap tileMap) {
+        this.environment.addTileMap(tileMap);
+    }
+
     /**
      * Add the given sprite to the game environment.
      * @param s the sprite that should be added to the Sprite collection of the game.
@@ -110,11 +142,33 @@ public class GameLevel implements Animation {
         this.getGameEnvironment().removeCollidable(c);
     }
 
+    /**
+     * Add the given ball to the balls of the game.
+     * @param ball the ball that should be added to the game.
+     */
+    public void addBall(Ball ball) {
+        this.balls.adopt(ball);
+    }
+
+    /**
+     * @param ball the ball that should be removed from the balls of the game.
+     */
+    public void removeBall(Ball ball) {
+        this.balls.remove(ball);
+    }
+
     /**
      * @param s the sprite object that should be removed from Sprite collection of the game.
      */
     public void removeSprite(Sprite s) {
-        this.sprites.getSprites().remove(s);
+        this.sprites.removeSprite(s);
+    }
+
+    /**
+     * Draw the static sprites of the game (the background, the blocks and the indicators) again in the next frame.
+     */
+    public void invalidateStaticLayer() {
+        this.sprites.invalidateStaticLayer();
     }
 
     /**
@@ -122,13 +176,8 @@ public class GameLevel implements Animation {
      * @param block the block that should be added to the game
      */
     public void addBlock(Block block) {
-        // BlockRemover is in charge of removing blocks from the game, as well as counting the remaining blocks.
-        BlockRemover blockRemover = new BlockRemover(this, this.blocksCounter);
-        // stk is in charge of updating the score counter when blocks are being hit and removed.
-        ScoreTrackingListener stk = new ScoreTrackingListener(this.gameScore);
-        // Create a new block and add it to the game.
-        block.addHitListener(blockRemover);
-        block.addHitListener(stk);
+        // The hits of the block are passed to the listeners of the level by the bus.
+        block.setHitEventBus(this.hitEvents);
         block.addToGame(this);
     }
 
@@ -190,10 +239,8 @@ public class GameLevel implements Animation {
     private void setBalls() {
         int topPaddle = 10;
         Point ballCenter = new Point((float)(SURFACE_WIDTH / 2), SURFACE_HEIGHT - PADDLE_HEIGHT - topPaddle);
-        int ballsRadius = 5;
-        Colors colors = new Colors();
         for (int i = 0; i < this.levelInformation.numberOfBalls(); i++) {
-            addBall(ballCenter, ballsRadius, colors.setRainbowColor(-1),
+            addBall(ballCenter, BALL_RADIUS, Palette.randomRainbow(),
                 this.levelInformation.initialBallVelocities().get(i));
         }
     }
@@ -206,9 +253,8 @@ public class GameLevel implements Animation {
         double paddleWidth = this.levelInformation.paddleWidth();
         Point paddleStartPoint = new Point((float)(SURFACE_WIDTH / 2) - paddleWidth / 2,
             SURFACE_HEIGHT - PADDLE_HEIGHT);
-        Colors colors = new Colors();
         this.paddle = new Paddle(paddleStartPoint, paddleWidth, PADDLE_HEIGHT,
-            colors.setRainbowColor(-1), this.levelInformation.paddleSpeed());
+            Palette.randomRainbow(), this.levelInformation.paddleSpeed());
         paddle.setKeyboardSensor(this.keyboard);
         // The line of the range that the paddle can move in it.
         Line paddleRange = new Line(new Point(SIDES_BORDERS_WIDTH, 0),
@@ -228,10 +274,9 @@ public class GameLevel implements Animation {
      * @param ballVelocity the velocity of the ball.
      */
     private void addBall(Point position, int radius, Color ballColor, Velocity ballVelocity) {
-        Ball ball = new Ball(position, radius, ballColor);
-        ball.setVelocity(ballVelocity);
-        ball.addToGame(this);
-        ball.setGameEnvironment(this.environment);
+        // The ball is created right in the arrays of the balls of the game.
+        this.balls.spawn(position.getX(), position.getY(), radius, ballColor, ballVelocity.getDx(),
+            ballVelocity.getDy());
     }
 
     /**
@@ -241,6 +286,12 @@ public class GameLevel implements Animation {
         for (int i = 0; i < levelInformation.blocks().size(); i++) {
             addBlock(levelInformation.blocks().get(i));
         }
+        // The blocks of a level that is laid out on a grid are kept in a map (the listeners are shared by them).
+        TileMap tileMap = levelInformation.tileMap();
+        if (tileMap != null) {
+            tileMap.setHitEventBus(this.hitEvents);
+            tileMap.addToGame(this);
+        }
     }
 
     /**
@@ -248,8 +299,10 @@ public class GameLevel implements Animation {
      */
     public void initialize() {
         setGameBlocks();
-        this.sprites.getSprites().add(0, levelInformation.getBackground());
-        this.ballsCounter = new Counter(this.levelInformation.numberOfBalls());
+        // The balls are drawn over the blocks.
+        this.balls.addToGame(this);
+        this.sprites.addSpriteToBack(levelInformation.getBackground());
+        this.ballsCounter = new ConcurrentCounter(this.levelInformation.numberOfBalls());
       } // initialize
 
     @Override
@@ -264,7 +317,7 @@ public class GameLevel implements Animation {
     public void playOneTurn() {
         setPaddle();
         setBalls();
-        this.ballsCounter = new Counter(this.levelInformation.numberOfBalls());
+        this.ballsCounter = new ConcurrentCounter(this.levelInformation.numberOfBalls());
         CountdownAnimation countdownAnimation = new CountdownAnimation(2.0, 3, this.sprites);
         this.runner.run(countdownAnimation);
         // Use the runner to run the current animation, which is one turn of the game.
@@ -275,6 +328,7 @@ public class GameLevel implements Animation {
         // of the lives by 1.
         if (this.getBlocksNumber() > 0) {
             this.numberOfLives.decrease(1);
+            this.invalidateStaticLayer();
         }
         // Remove the paddle since the turn is over.
         this.removeSprite(paddle);
@@ -284,10 +338,26 @@ public class GameLevel implements Animation {
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
-        int winningScore = 100;
         this.sprites.drawAllOn(d);
-        // Notify all the sprites that time has passed (change the state of the sprites in each frame).
+        this.step(dt);
+    }
+
+    @Override
+    public void render(DrawSurface d, double alpha) {
+        if (this.runner.isDirtyRectangles()) {
+            this.sprites.drawDirtyOn(d, alpha);
+        } else {
+            this.sprites.drawAllOn(d, alpha);
+        }
+    }
+
+    @Override
+    public void step(double dt) {
+        int winningScore = 100;
+        // Notify all the sprites that time has passed (change the state of the sprites in each step).
         this.sprites.notifyAllTimePassed(dt);
+        // Pass the hits of the step to the listeners of the level.
+        this.hitEvents.drain();
         Tools helperFunctions = new Tools();
         if (this.keyboard.isPressed("p")) {
             helperFunctions.runStoppableAnimation(this.runner, new PauseScreenAnimation(), "c");
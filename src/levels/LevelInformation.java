@@ -3,12 +3,21 @@ import java.util.List;
 import arkanoidgame.Velocity;
 import sprites.Block;
 import sprites.Sprite;
+import sprites.TileMap;
 
 /**
  * The LevelInformation interface specifies the information required to fully describe a level.
  */
 public interface LevelInformation {
 
+    /**
+     * Create the parts of the level that take time to create (like decoding its images and laying out its blocks),
+     * if they weren't created yet. It may be called by another thread before the level is played; otherwise they
+     * are created when they are first used.
+     */
+    default void load() {
+    }
+
     /**
      * @return the number of balls of the level.
      */
@@ -44,6 +53,14 @@ public interface LevelInformation {
      */
     List<Block> blocks();
 
+    /**
+     * @return the map of the blocks of the level, if its blocks are laid out on a grid and kept in a map instead of
+     * the list of the blocks (null otherwise).
+     */
+    default TileMap tileMap() {
+        return null;
+    }
+
     /**
      * @return the number of blocks that should be removed from the game.
      */
@@ -2,6 +2,8 @@ package levels;
 
 import java.awt.Color;
 
+import animation.TextCache;
+import animation.TextImage;
 import biuoop.DrawSurface;
 import sprites.Sprite;
 
@@ -11,6 +13,9 @@ import sprites.Sprite;
 public class LevelNameIndicator implements Sprite {
     // Declare the members of the class.
     private String gameLevelName;
+    // The images of the texts of the indicator (they don't change).
+    private TextImage nameText;
+    private TextImage pauseText;
 
     /**
      * Constructor.
@@ -26,17 +31,25 @@ public class LevelNameIndicator implements Sprite {
         d.setColor(new Color(255, 255, 204));
         int centerBlockX = 500;
         int centerBlockY = 25;
-        d.fillRectangle(0, 0, 800, 35);
+        d.fillRectangle(0, 0, GameLevel.SURFACE_WIDTH, 35);
         Color textColor = Color.black;
-        d.setColor(textColor);
-        d.drawText(centerBlockX, centerBlockY, "Level Name: " + this.gameLevelName, 18);
-        d.drawText(75, 25, "\"p\" - pause" , 18);
+        if (this.nameText == null) {
+            this.nameText = TextCache.get("Level Name: " + this.gameLevelName, 18, textColor);
+            this.pauseText = TextCache.get("\"p\" - pause", 18, textColor);
+        }
+        this.nameText.drawOn(d, centerBlockX, centerBlockY);
+        this.pauseText.drawOn(d, 75, 25);
     }
 
     @Override
     public void timePassed(double dt) {
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void addToGame(GameLevel g) {
         g.addSprite(this);
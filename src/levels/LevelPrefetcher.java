@@ -0,0 +1,98 @@
+package levels;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The LevelPrefetcher class loads the next level of a game in the background while the current level is played.
+ * Loading a level (taking it from its list and calling its load method) decodes the images of its background and
+ * its blocks and lays out its blocks (a level of a LevelPack is also created when it's taken from the list). When a
+ * level is taken from the prefetcher, the loading of the level after it starts on a thread of its own, so when the
+ * current level ends the next one is usually ready and the game passes to it without waiting. An error in the
+ * loading of a level is thrown when the level is taken, as if it was loaded then. Only the information of the levels
+ * is loaded in the background; the GameLevel of each level is still created by the thread of the game, since it
+ * uses the screen and the keyboard.
+ */
+public class LevelPrefetcher implements AutoCloseable {
+    // Declare the members of the class.
+    private List<LevelInformation> levels;
+    private ExecutorService executor;
+    // The level that is loaded in the background, and its index (-1 if there's no such level).
+    private Future<LevelInformation> next = null;
+    private int nextIndex = -1;
+
+    /**
+     * Constructor.
+     * @param levels the levels of the game.
+     */
+    public LevelPrefetcher(List<LevelInformation> levels) {
+        this.levels = levels;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "level-prefetch");
+            // The thread doesn't keep the program running after the game is over.
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the number of the levels.
+     */
+    public int size() {
+        return this.levels.size();
+    }
+
+    /**
+     * Take a level, and start to load the level after it in the background. If the level wasn't loaded in the
+     * background, it's loaded now (and if it's still being loaded, this waits for it).
+     * @param index the index of the level.
+     * @return the information of the level.
+     */
+    public LevelInformation take(int index) {
+        LevelInformation level;
+        if (index == this.nextIndex) {
+            try {
+                level = this.next.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e.getMessage());
+            } catch (ExecutionException e) {
+                // Throw the exception of the loading of the level, as if it was loaded now.
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        } else {
+            if (this.next != null) {
+                this.next.cancel(true);
+            }
+            level = this.levels.get(index);
+            level.load();
+        }
+        this.next = null;
+        this.nextIndex = -1;
+        if (index + 1 < this.levels.size()) {
+            int nextLevel = index + 1;
+            this.next = this.executor.submit(() -> {
+                LevelInformation nextInformation = this.levels.get(nextLevel);
+                nextInformation.load();
+                return nextInformation;
+            });
+            this.nextIndex = nextLevel;
+        }
+        return level;
+    }
+
+    /**
+     * Stop the loading of the levels in the background (a level that is being loaded is abandoned).
+     */
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+} // class LevelPrefetcher
@@ -0,0 +1,109 @@
+package readingfiles;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import sprites.BlockImageBackground;
+
+/**
+ * The BlockAtlas class is built when a level is loaded. It scales each image of the blocks of the level to the size
+ * of its blocks, and packs all of them (in rows) into one image in the format of the screen. Each image background
+ * then draws its part of the atlas, so the blocks are drawn without scaling or converting their pixels.
+ */
+public class BlockAtlas {
+    // The maximal width of a row of the atlas.
+    private static final int MAX_ROW_WIDTH = 1024;
+    // Declare the members of the class.
+    private List<BlockImageBackground> backgrounds = new ArrayList<>();
+    private List<Image> images = new ArrayList<>();
+    private List<int[]> regions = new ArrayList<>();
+
+    /**
+     * Add an image background to the atlas.
+     * @param background the image background of some blocks.
+     * @param width the width of the blocks of the background.
+     * @param height the height of the blocks of the background.
+     */
+    public void add(BlockImageBackground background, int width, int height) {
+        if (width <= 0 || height <= 0 || this.backgrounds.contains(background)) {
+            return;
+        }
+        this.backgrounds.add(background);
+        // The same image in the same size is kept in the atlas only once.
+        for (int i = 0; i < this.images.size(); i++) {
+            int[] region = this.regions.get(i);
+            if (this.images.get(i) == background.getImage() && region[2] == width && region[3] == height) {
+                this.regions.add(region);
+                this.images.add(background.getImage());
+                return;
+            }
+        }
+        this.images.add(background.getImage());
+        this.regions.add(new int[] {0, 0, width, height});
+    }
+
+    /**
+     * @return true if no image background was added to the atlas, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.backgrounds.isEmpty();
+    }
+
+    /**
+     * Pack the images into the atlas, draw them scaled to their sizes, and give each image background its part.
+     * @return the image of the atlas, or null if the atlas is empty.
+     */
+    public BufferedImage build() {
+        if (this.isEmpty()) {
+            return null;
+        }
+        // Put the regions in rows (a region that is shared by several backgrounds is placed once).
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        int atlasWidth = 0;
+        List<int[]> placed = new ArrayList<>();
+        boolean opaque = true;
+        for (int i = 0; i < this.regions.size(); i++) {
+            int[] region = this.regions.get(i);
+            if (placed.contains(region)) {
+                continue;
+            }
+            if (x > 0 && x + region[2] > MAX_ROW_WIDTH) {
+                x = 0;
+                y = y + rowHeight;
+                rowHeight = 0;
+            }
+            region[0] = x;
+            region[1] = y;
+            x = x + region[2];
+            rowHeight = Math.max(rowHeight, region[3]);
+            atlasWidth = Math.max(atlasWidth, x);
+            placed.add(region);
+            Image image = this.images.get(i);
+            if (!(image instanceof BufferedImage) || ((BufferedImage) image).getColorModel().hasAlpha()) {
+                opaque = false;
+            }
+        }
+        BufferedImage atlas = ImageCache.createCompatibleImage(atlasWidth, y + rowHeight, opaque);
+        Graphics2D g = atlas.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        for (int i = 0; i < this.regions.size(); i++) {
+            int[] region = this.regions.get(i);
+            if (placed.remove(region)) {
+                g.drawImage(this.images.get(i), region[0], region[1], region[2], region[3], null);
+            }
+        }
+        g.dispose();
+        for (int i = 0; i < this.backgrounds.size(); i++) {
+            int[] region = this.regions.get(i);
+            this.backgrounds.get(i).setScaledImage(atlas.getSubimage(region[0], region[1], region[2], region[3]));
+        }
+        return atlas;
+    } // build
+
+} // class BlockAtlas
@@ -5,8 +5,6 @@ import java.awt.Image;
 import java.io.BufferedReader;
 import java.util.*;
 
-import javax.imageio.ImageIO;
-
 import sprites.BlockBackground;
 import sprites.BlockColorBackground;
 import sprites.BlockGenerator;
@@ -24,7 +22,7 @@ public class BlocksDefinitionReader {
      * @param reader is connected to the source file. Reads character streams.
      * @return a list of the relevant definition lines from the block definitions file.
      */
-    private static List<String> relevantLines(java.io.Reader reader) {
+    static List<String> relevantLines(java.io.Reader reader) {
         List<String> relevantLines = new ArrayList<>();
          // Wrap the reader with a bufferedReader which read lines.
         BufferedReader bufferedReader = new BufferedReader(reader);
@@ -49,6 +47,27 @@ public class BlocksDefinitionReader {
         return relevantLines;
     }
 
+    /**
+     * Read only the symbols of the blocks and the spacers of a block definitions file, without creating the blocks
+     * (and without decoding their images), so the symbols of a level can be checked as soon as the level is read.
+     * @param reader is connected to the block definitions file.
+     * @return the symbols of the blocks and the spacers.
+     */
+    static Set<String> symbols(java.io.Reader reader) {
+        Set<String> symbols = new TreeSet<>();
+        for (String line : relevantLines(reader)) {
+            if (line.startsWith("bdef ") || line.startsWith("sdef ")) {
+                for (String pair : line.substring("bdef ".length()).split(" ")) {
+                    String[] featureAndValue = pair.split(":");
+                    if (featureAndValue[0].equals("symbol") && featureAndValue.length > 1) {
+                        symbols.add(featureAndValue[1]);
+                    }
+                }
+            }
+        }
+        return symbols;
+    }
+
     /**
      * Draw the background of a block.
      * @param value the string that contains the info about the background.
@@ -66,8 +85,7 @@ public class BlocksDefinitionReader {
                 value = value.replace("image(", "");
                 value = value.replace(")", "");
                 // value = value.split("/")[1];
-                Image image = ImageIO.read(
-                        Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResourceAsStream(value)));
+                Image image = ImageCache.get(value);
                 return new BlockImageBackground(image);
             }
         // Throw exception if an error occurred while reading the file.
@@ -204,6 +222,28 @@ public class BlocksDefinitionReader {
         return stringsToBlockCreators;
     }
 
+    /**
+     * Create a block generator from the properties of a block, like the generators of a definitions file are created.
+     * @param properties the pairs of the name and the value of each property of the block, in the order they should
+     * be applied (the default values first, and then the values of the definition of the block).
+     * @return the block generator.
+     */
+    static BlockGenerator blockGenerator(List<String[]> properties) {
+        Map<String, Integer> requiredValues = new TreeMap<>();
+        requiredValues.put("symbol", 0);
+        requiredValues.put("width", 0);
+        requiredValues.put("height", 0);
+        requiredValues.put("hit_points", 0);
+        requiredValues.put("fill", 0);
+        BlockGenerator blocksGenerator = new BlockGenerator();
+        for (String[] property : properties) {
+            addValuesToBlockCreator(property[0], property[1], requiredValues, blocksGenerator);
+        }
+        mapHitsToBackgrounds(blocksGenerator);
+        checkBlockCreatorValidity(requiredValues);
+        return blocksGenerator;
+    }
+
     /**
      * @param spacerDefinitions lines begin with the token sdef, followed by a space-separated list of properties.
      * Each property has the form key:value
@@ -36,6 +36,14 @@ public class BlocksFromSymbolsFactory {
     }
 
 
+    /**
+     * @param s a block symbol.
+     * @return the block generator associated with the given block-symbol.
+     */
+    public BlockGenerator getBlockGenerator(String s) {
+        return this.blockCreators.get(s);
+    }
+
     /**
      * @param s a string to check whether it's a space symbol or not.
      * @return true if 's' is a valid space symbol, false otherwise.
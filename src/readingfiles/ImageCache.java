@@ -0,0 +1,142 @@
+package readingfiles;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * The ImageCache class is a process-wide cache of the images of the game (by their resource paths), so each image
+ * is decoded once instead of on every frame. The cache is bounded by the memory of the decoded images: when it's
+ * full, the least recently used images are evicted (and decoded again if they are used later).
+ */
+public class ImageCache {
+    // The default bound of the memory of the cached images, in bytes.
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    // Maps each resource path to its image, in the order of the last use (the least recently used is first).
+    private static Map<String, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    private static long maxBytes = DEFAULT_MAX_BYTES;
+    private static long usedBytes = 0;
+
+    /**
+     * Return the image of the given resource path, decoding it only if it's not in the cache.
+     * @param path the resource path of the image (relative to the class path).
+     * @return the image.
+     * @throws RuntimeException if the image can't be found or decoded.
+     */
+    public static synchronized BufferedImage get(String path) {
+        BufferedImage image = images.get(path);
+        if (image == null) {
+            image = read(path);
+            images.put(path, image);
+            usedBytes = usedBytes + bytesOf(image);
+            evict();
+        }
+        return image;
+    }
+
+    /**
+     * Load the images of the given resource paths into the cache (for example, when the game starts).
+     * @param paths the resource paths of the images.
+     */
+    public static void preload(String... paths) {
+        for (String path : paths) {
+            get(path);
+        }
+    }
+
+    /**
+     * Set the bound of the memory of the cached images (the least recently used images are evicted to fit it).
+     * @param bytes the bound, in bytes.
+     */
+    public static synchronized void setMaxBytes(long bytes) {
+        maxBytes = bytes;
+        evict();
+    }
+
+    /**
+     * Remove all the images from the cache.
+     */
+    public static synchronized void clear() {
+        images.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Create an empty image in the format of the screen, so drawing it on the screen doesn't need a conversion of its
+     * pixels (without a screen, an image of int pixels is created).
+     * @param width the width of the image.
+     * @param height the height of the image.
+     * @param opaque true if the image has no transparent pixels, false otherwise.
+     * @return the image.
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, boolean opaque) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+            .createCompatibleImage(width, height, opaque ? Transparency.OPAQUE : Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * Copy the upper left part of the given image to a new image in the format of the screen.
+     * @param image an image.
+     * @param width the width of the part that should be copied.
+     * @param height the height of the part that should be copied.
+     * @return the copy of the part of the image.
+     */
+    public static BufferedImage copyCompatible(BufferedImage image, int width, int height) {
+        BufferedImage copy = createCompatibleImage(width, height, !image.getColorModel().hasAlpha());
+        Graphics2D g = copy.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+
+    /**
+     * Evict the least recently used images until the cache fits its bound (the most recent image is always kept).
+     */
+    private static void evict() {
+        Iterator<BufferedImage> iterator = images.values().iterator();
+        while (usedBytes > maxBytes && images.size() > 1 && iterator.hasNext()) {
+            usedBytes = usedBytes - bytesOf(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * @param image an image.
+     * @return the approximate memory of the decoded image, in bytes (4 bytes for each pixel).
+     */
+    private static long bytesOf(BufferedImage image) {
+        return 4L * image.getWidth() * image.getHeight();
+    }
+
+    /**
+     * @param path the resource path of the image.
+     * @return the decoded image.
+     * @throws RuntimeException if the image can't be found or decoded.
+     */
+    private static BufferedImage read(String path) {
+        try (InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(path)) {
+            if (is == null) {
+                throw new RuntimeException("The image " + path + " doesn't exist.");
+            }
+            BufferedImage image = ImageIO.read(is);
+            if (image == null) {
+                throw new RuntimeException("The image " + path + " can't be decoded.");
+            }
+            return image;
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+} // class ImageCache
@@ -1,30 +1,48 @@
 package readingfiles;
 
 import java.awt.Color;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
 import arkanoidgame.Velocity;
 import geometry.Point;
 import geometry.Rectangle;
 import levels.LevelInformation;
 import sprites.Block;
+import sprites.BlockBackground;
+import sprites.BlockGenerator;
+import sprites.BlockImageBackground;
 import sprites.ColorBackground;
 import sprites.ColorsParser;
 import sprites.ImageBackground;
 import sprites.Sprite;
+import sprites.TileMap;
+
+import static levels.GameLevel.SURFACE_HEIGHT;
+import static levels.GameLevel.SURFACE_WIDTH;
 
 /**
  * The LevelCreation class implements the LevelInformation interface and is in charge of creating a new level.
+ * The information of the level is parsed and checked when the level is created, so a level definitions file with
+ * a missing or a wrong value fails when it's read. The parts that take time - decoding the images of the background
+ * and the blocks, and laying out the blocks - are done only when the level is loaded (by load(), or by the first
+ * call that needs them), so they can be done in the background while another level is played.
  */
 public class LevelCreation implements LevelInformation {
+    // The features that every level should have.
+    private static final String[] REQUIRED_FEATURES = {"level_name", "ball_velocities", "background", "paddle_speed",
+        "paddle_width", "block_definitions", "blocks_start_x", "blocks_start_y", "row_height", "num_blocks"};
     // Declare the members of the class.
     private String levelName;
     private List<Velocity> ballVelocities;
+    private String backgroundValue;
     private Sprite background;
     private int paddleSpeed;
     private int paddleWidth;
@@ -33,17 +51,33 @@ public class LevelCreation implements LevelInformation {
     private int blocksStartY;
     private int rowHeight;
     private int numOfBlocks;
+    private List<String> blocksInfo;
     private List<Block> blocksLayout;
+    // The blocks of a level that is laid out on a grid are kept in a map (and the list of the blocks is empty).
+    private TileMap tileMap;
+    // True after the background and the blocks were created.
+    private boolean loaded = false;
 
     /**
      * Constructor.
      * Save all the information of the level in order to be able to create it.
      * @param levelInfo a map that maps between features of the level and their values.
+     * @throws RuntimeException if a feature of the level is missing or isn't valid.
      */
     public LevelCreation(Map<String, String> levelInfo) {
+        for (String feature : REQUIRED_FEATURES) {
+            if (levelInfo.get(feature) == null) {
+                throw new RuntimeException("The feature " + feature + " of the level is missing");
+            }
+        }
         this.levelName = levelInfo.get("level_name");
         this.ballVelocities = parseToBallVelocities(levelInfo.get("ball_velocities"));
-        this.background = stringToBackground(levelInfo.get("background"));
+        this.backgroundValue = levelInfo.get("background");
+        if (this.backgroundValue.startsWith("color(")) {
+            new ColorsParser().colorFromString(this.backgroundValue);
+        } else if (!this.backgroundValue.startsWith("image(")) {
+            throw new RuntimeException("The background " + this.backgroundValue + " is not valid");
+        }
         this.paddleSpeed = Integer.parseInt(levelInfo.get("paddle_speed"));
         this.paddleWidth = Integer.parseInt(levelInfo.get("paddle_width"));
         this.blockDefinitions = levelInfo.get("block_definitions");
@@ -51,32 +85,90 @@ public class LevelCreation implements LevelInformation {
         this.blocksStartY = Integer.parseInt(levelInfo.get("blocks_start_y"));
         this.rowHeight = Integer.parseInt(levelInfo.get("row_height"));
         this.numOfBlocks = Integer.parseInt(levelInfo.get("num_blocks"));
-        List<String> blocksInfo = blockInfoLines(levelInfo);
-        this.blocksLayout = parseToBlocks(blocksInfo);
+        this.blocksInfo = blockInfoLines(levelInfo);
+        // Check the symbols of the blocks (only the symbols of the block definitions file are read now).
+        InputStream definitions = ClassLoader.getSystemClassLoader().getResourceAsStream(this.blockDefinitions);
+        if (definitions == null) {
+            throw new RuntimeException("The block definitions file " + this.blockDefinitions + " was not found");
+        }
+        Set<String> symbols = BlocksDefinitionReader.symbols(new InputStreamReader(definitions));
+        for (String s : this.blocksInfo) {
+            for (int j = 0; j < s.length(); j++) {
+                if (!symbols.contains(Character.toString(s.charAt(j)))) {
+                    throw new RuntimeException("The symbol is unknown");
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the background and the blocks of the level (decode their images and lay out the blocks), if they
+     * weren't created yet.
+     */
+    @Override
+    public synchronized void load() {
+        if (this.loaded) {
+            return;
+        }
+        this.background = stringToBackground(this.backgroundValue);
+        BlocksFromSymbolsFactory bfsf = fileToBlockFactory();
+        buildBlockAtlas(this.blocksInfo, bfsf);
+        this.tileMap = parseToTileMap(this.blocksInfo, bfsf);
+        if (this.tileMap == null) {
+            this.blocksLayout = parseToBlocks(this.blocksInfo, bfsf);
+        } else {
+            this.blocksLayout = new ArrayList<>();
+        }
+        this.loaded = true;
+    }
+
+    /**
+     * Constructor.
+     * Save the information of a level that was already created (for example, from a level pack).
+     * @param levelName the name of the level.
+     * @param ballVelocities the initial velocities of the balls.
+     * @param background the background of the level.
+     * @param paddleSpeed the speed of the paddle.
+     * @param paddleWidth the width of the paddle.
+     * @param numOfBlocks the number of the blocks that should be removed.
+     * @param blocksLayout the blocks of the level (empty if the blocks are kept in a map).
+     * @param tileMap the map of the blocks of the level, or null if the blocks are not laid out on a grid.
+     */
+    LevelCreation(String levelName, List<Velocity> ballVelocities, Sprite background, int paddleSpeed,
+                  int paddleWidth, int numOfBlocks, List<Block> blocksLayout, TileMap tileMap) {
+        this.levelName = levelName;
+        this.ballVelocities = ballVelocities;
+        this.background = background;
+        this.paddleSpeed = paddleSpeed;
+        this.paddleWidth = paddleWidth;
+        this.numOfBlocks = numOfBlocks;
+        this.blocksLayout = blocksLayout;
+        this.tileMap = tileMap;
+        this.loaded = true;
     }
 
     /**
      * @param value the string to parse to a background.
      * @return Sprite of the background.
      */
-    private static Sprite stringToBackground(String value) {
+    static Sprite stringToBackground(String value) {
         try {
             // If it's a color background.
             if (value.startsWith("color(")) {
                 ColorsParser parser = new ColorsParser();
                 Color color = parser.colorFromString(value);
                 ColorBackground colorBackground = new ColorBackground(color);
-                Rectangle rectangle = new Rectangle(new Point(0, 0), 800, 600);
+                Rectangle rectangle = new Rectangle(new Point(0, 0), SURFACE_WIDTH, SURFACE_HEIGHT);
                 colorBackground.setRecBackground(rectangle);
                 return colorBackground;
             // If it's an image background.
             } else if (value.startsWith("image(")) {
                 value = value.replace("image(", "");
                 value = value.replace(")", "");
-                java.io.InputStream is;
-                is = ClassLoader.getSystemClassLoader().getResourceAsStream(value);
-                java.awt.image.BufferedImage image = javax.imageio.ImageIO.read(Objects.requireNonNull(is));
-                ImageBackground img = new ImageBackground(image);
+                java.awt.image.BufferedImage image = ImageCache.get(value);
+                // Only the part of the image that is on the screen is kept, in the format of the screen.
+                ImageBackground img = new ImageBackground(ImageCache.copyCompatible(image,
+                    Math.min(image.getWidth(), SURFACE_WIDTH), Math.min(image.getHeight(), SURFACE_HEIGHT)));
                 img.setStartPoint(new Point(0, 0));
                 return img;
             }
@@ -113,7 +205,7 @@ public class LevelCreation implements LevelInformation {
      * @param levelInfo the level information.
      * @return the lines of the block info.
      */
-    public List<String> blockInfoLines(Map<String, String> levelInfo) {
+    public static List<String> blockInfoLines(Map<String, String> levelInfo) {
         List<String> blocksLines = new ArrayList<>();
         int numOfBlockLines = Integer.parseInt(levelInfo.get("num_of_blocks_lines"));
         for (int i = 1; i < numOfBlockLines; i++) {
@@ -137,11 +229,107 @@ public class LevelCreation implements LevelInformation {
     }
 
     /**
+     * Scale the images of the blocks of the level to the sizes of the blocks, and pack them into one atlas image.
      * @param blockInfo a list that contains the information of the block.
+     * @param bfsf the factory of the blocks of the level.
+     */
+    private void buildBlockAtlas(List<String> blockInfo, BlocksFromSymbolsFactory bfsf) {
+        BlockAtlas atlas = new BlockAtlas();
+        for (String s : blockInfo) {
+            for (int j = 0; j < s.length(); j++) {
+                String currentChar = Character.toString(s.charAt(j));
+                if (!bfsf.isBlockSymbol(currentChar)) {
+                    continue;
+                }
+                // The blocks of the level are as high as its rows.
+                BlockGenerator generator = bfsf.getBlockGenerator(currentChar);
+                for (BlockBackground background : generator.getHitsToBackground().values()) {
+                    if (background instanceof BlockImageBackground) {
+                        atlas.add((BlockImageBackground) background, generator.getWidth(), this.rowHeight);
+                    }
+                }
+            }
+        }
+        atlas.build();
+    }
+
+    /**
+     * If all the blocks of the level have the same width, and the widths of all the spaces are multiples of it, the
+     * blocks are laid out on a grid of cells, and they are kept in a map of the types and the hits of the cells.
+     * @param blockInfo a list that contains the information of the block.
+     * @param bfsf the factory of the blocks of the level.
+     * @return the map of the blocks, or null if the blocks are not laid out on a grid.
+     */
+    private TileMap parseToTileMap(List<String> blockInfo, BlocksFromSymbolsFactory bfsf) {
+        int cellWidth = 0;
+        int columns = 0;
+        String currentChar;
+        // Find the width of the cells, and check that all the symbols fit to it.
+        for (String s : blockInfo) {
+            int lineWidth = 0;
+            for (int j = 0; j < s.length(); j++) {
+                currentChar = Character.toString(s.charAt(j));
+                if (bfsf.isBlockSymbol(currentChar)) {
+                    int blockWidth = bfsf.getBlockWidth(currentChar);
+                    if (cellWidth == 0) {
+                        cellWidth = blockWidth;
+                    }
+                    if (blockWidth != cellWidth || bfsf.getNumOfHits(currentChar) > TileMap.MAX_HITS) {
+                        return null;
+                    }
+                    lineWidth = lineWidth + blockWidth;
+                } else if (bfsf.isSpaceSymbol(currentChar)) {
+                    lineWidth = lineWidth + bfsf.getSpaceWidth(currentChar);
+                } else {
+                    return null;
+                }
+            }
+            columns = Math.max(columns, lineWidth);
+        }
+        if (cellWidth <= 0) {
+            return null;
+        }
+        // The spaces should be multiples of the width of the cells (checked on the lines, since they are mixed).
+        for (String s : blockInfo) {
+            for (int j = 0; j < s.length(); j++) {
+                currentChar = Character.toString(s.charAt(j));
+                if (bfsf.isSpaceSymbol(currentChar) && bfsf.getSpaceWidth(currentChar) % cellWidth != 0) {
+                    return null;
+                }
+            }
+        }
+        columns = columns / cellWidth;
+        TileMap map = new TileMap(this.blocksStartX, this.blocksStartY, cellWidth, this.rowHeight, columns,
+            blockInfo.size());
+        Map<String, Integer> typeIds = new TreeMap<>();
+        for (int row = 0; row < blockInfo.size(); row++) {
+            String s = blockInfo.get(row);
+            int column = 0;
+            for (int j = 0; j < s.length(); j++) {
+                currentChar = Character.toString(s.charAt(j));
+                if (bfsf.isBlockSymbol(currentChar)) {
+                    if (!typeIds.containsKey(currentChar)) {
+                        if (typeIds.size() == TileMap.MAX_TYPES) {
+                            return null;
+                        }
+                        typeIds.put(currentChar, map.addType(bfsf.getBlockGenerator(currentChar)));
+                    }
+                    map.setTile(column, row, typeIds.get(currentChar), bfsf.getNumOfHits(currentChar));
+                    column++;
+                } else {
+                    column = column + bfsf.getSpaceWidth(currentChar) / cellWidth;
+                }
+            }
+        }
+        return map;
+    } // parseToTileMap
+
+    /**
+     * @param blockInfo a list that contains the information of the block.
+     * @param bfsf the factory of the blocks of the level.
      * @return a list of blocks.
      */
-    private List<Block> parseToBlocks(List<String> blockInfo) {
-        BlocksFromSymbolsFactory bfsf = fileToBlockFactory();
+    private List<Block> parseToBlocks(List<String> blockInfo, BlocksFromSymbolsFactory bfsf) {
         List<Block> blocks = new ArrayList<>();
         int currentPositionX;
         int currentPositionY = this.blocksStartY;
@@ -201,14 +389,22 @@ public class LevelCreation implements LevelInformation {
 
     @Override
     public Sprite getBackground() {
+        this.load();
         return this.background;
     }
 
     @Override
     public List<Block> blocks() {
+        this.load();
         return this.blocksLayout;
     }
 
+    @Override
+    public TileMap tileMap() {
+        this.load();
+        return this.tileMap;
+    }
+
     @Override
     public int numberOfBlocksToRemove() {
         return this.numOfBlocks;
@@ -0,0 +1,314 @@
+package readingfiles;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import arkanoidgame.Velocity;
+import geometry.Point;
+import geometry.Rectangle;
+import levels.LevelInformation;
+import sprites.Block;
+import sprites.BlockBackground;
+import sprites.BlockColorBackground;
+import sprites.BlockGenerator;
+import sprites.BlockImageBackground;
+import sprites.Stroke;
+import sprites.TileMap;
+
+/**
+ * The LevelPack class reads the levels of a level pack - a binary file that LevelPackCompiler compiles from the
+ * level definitions and the block definitions files. The file is mapped to the memory, and only its header is read
+ * when it's opened, so opening a pack of thousands of levels is immediate. A level is created from the mapped bytes
+ * only when it's asked for: its fields are read in place, its blocks are read from a table of fixed records (the
+ * position and the type of each block), the types of the blocks were already resolved by the compiler (their sizes,
+ * hit points, stroke and the color or the image of each number of hits), and the layout of the blocks (a tile map or
+ * a list of blocks) was already decided by the compiler, so the block definitions aren't parsed. What is still done
+ * when a level is created: the strings of the level (its name, its background and the paths of the images) are
+ * decoded, the images are taken from ImageCache (and decoded the first time they are used), and the images of the
+ * blocks are scaled to the sizes of the blocks and packed into a new atlas.
+ * The format (all the numbers are big endian, and each string is a short length and its UTF-8 bytes):
+ * <pre>
+ * header:     int MAGIC, int VERSION, int number of images, int number of block sets, int number of levels,
+ *             int offset of each image, int offset of each block set, int offset of each level
+ * image:      string resource path of the image
+ * block set:  short number of types, and for each type: int width, int height, int hit points, byte 1 if it has a
+ *             stroke (0 otherwise), int ARGB of the stroke, short number of fills, and for each fill: int number of
+ *             hits, byte COLOR_FILL or IMAGE_FILL, int ARGB of the color or index of the image
+ * level:      string name, short number of balls, int angle and int speed of each ball, string background,
+ *             int paddle speed, int paddle width, int blocks start x, int blocks start y, int row height,
+ *             int number of blocks to remove, int block set, byte TILE_MAP or BLOCK_LIST, int cell width,
+ *             int columns, int rows, int number of blocks, and a record of each block (unsigned short x,
+ *             unsigned short y, short type)
+ * </pre>
+ */
+public class LevelPack {
+    public static final String EXTENSION = ".pack";
+    public static final int MAGIC = 0x41524B50;
+    public static final int VERSION = 2;
+    // The layouts of the blocks of a level.
+    public static final byte BLOCK_LIST = 0;
+    public static final byte TILE_MAP = 1;
+    // The kinds of the fills of the blocks.
+    public static final byte COLOR_FILL = 0;
+    public static final byte IMAGE_FILL = 1;
+    // The size of the record of a block (x, y and type), and the largest coordinate of a block.
+    public static final int BLOCK_RECORD_BYTES = 6;
+    public static final int MAX_COORDINATE = 0xFFFF;
+    // The size of the header before the offsets of the images, the block sets and the levels.
+    static final int HEADER_BYTES = 20;
+    // Declare the members of the class.
+    private ByteBuffer buffer;
+    private int imageCount;
+    private int setCount;
+    private int levelCount;
+
+    /**
+     * Constructor.
+     * @param buffer the bytes of the pack.
+     */
+    public LevelPack(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new RuntimeException("The file is not a level pack of version " + VERSION);
+        }
+        this.imageCount = buffer.getInt(8);
+        this.setCount = buffer.getInt(12);
+        this.levelCount = buffer.getInt(16);
+    }
+
+    /**
+     * Open the level pack of the given file, by mapping the file to the memory.
+     * @param path the path of the file.
+     * @return the level pack.
+     */
+    public static LevelPack open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    /**
+     * Open the level pack of the given resource path. A resource that is a file is mapped to the memory, and a
+     * resource in a jar is read into the memory.
+     * @param path the resource path of the pack (relative to the class path).
+     * @return the level pack.
+     */
+    public static LevelPack fromResource(String path) {
+        URL url = Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResource(path));
+        try {
+            if (url.getProtocol().equals("file")) {
+                return open(Paths.get(url.toURI()));
+            }
+            try (InputStream input = url.openStream()) {
+                return new LevelPack(ByteBuffer.wrap(input.readAllBytes()));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of the levels in the pack.
+     */
+    public int size() {
+        return this.levelCount;
+    }
+
+    /**
+     * @param index the index of a level.
+     * @return the offset of the level in the pack.
+     */
+    private int levelOffset(int index) {
+        return this.buffer.getInt(HEADER_BYTES + (this.imageCount + this.setCount + index) * 4);
+    }
+
+    /**
+     * @param index the index of a level.
+     * @return the name of the level (read without creating the level).
+     */
+    public String levelName(int index) {
+        return readString(this.levelOffset(index));
+    }
+
+    /**
+     * Return a list of the levels of the pack. Each level is created when it's taken from the list, and it's
+     * created again whenever it's taken again (since a level is changed while it's played).
+     * @return the list of the levels.
+     */
+    public List<LevelInformation> levels() {
+        return new AbstractList<LevelInformation>() {
+            @Override
+            public LevelInformation get(int index) {
+                return level(index);
+            }
+
+            @Override
+            public int size() {
+                return levelCount;
+            }
+        };
+    }
+
+    /**
+     * Create the level of the given index.
+     * @param index the index of the level.
+     * @return the information of the level.
+     */
+    public LevelInformation level(int index) {
+        if (index < 0 || index >= this.levelCount) {
+            throw new IndexOutOfBoundsException("There is no level " + index + " in the pack");
+        }
+        int position = this.levelOffset(index);
+        String levelName = readString(position);
+        position = skipString(position);
+        int balls = this.buffer.getShort(position);
+        position += 2;
+        List<Velocity> velocities = new ArrayList<>(balls);
+        for (int i = 0; i < balls; i++) {
+            velocities.add(Velocity.fromAngleAndSpeed(this.buffer.getInt(position), this.buffer.getInt(position + 4)));
+            position += 8;
+        }
+        String background = readString(position);
+        position = skipString(position);
+        int paddleSpeed = this.buffer.getInt(position);
+        int paddleWidth = this.buffer.getInt(position + 4);
+        int startX = this.buffer.getInt(position + 8);
+        int startY = this.buffer.getInt(position + 12);
+        int rowHeight = this.buffer.getInt(position + 16);
+        int numOfBlocks = this.buffer.getInt(position + 20);
+        int set = this.buffer.getInt(position + 24);
+        byte layout = this.buffer.get(position + 28);
+        int cellWidth = this.buffer.getInt(position + 29);
+        int columns = this.buffer.getInt(position + 33);
+        int rows = this.buffer.getInt(position + 37);
+        int blockCount = this.buffer.getInt(position + 41);
+        int records = position + 45;
+        BlockGenerator[] generators = this.blockGenerators(set);
+        // Scale the images of the blocks to the sizes of the blocks, and pack them into one atlas image.
+        BlockAtlas atlas = new BlockAtlas();
+        for (int i = 0; i < blockCount; i++) {
+            BlockGenerator generator = generators[this.buffer.getShort(records + i * BLOCK_RECORD_BYTES + 4)];
+            for (BlockBackground blockBackground : generator.getHitsToBackground().values()) {
+                if (blockBackground instanceof BlockImageBackground) {
+                    atlas.add((BlockImageBackground) blockBackground, generator.getWidth(), rowHeight);
+                }
+            }
+        }
+        atlas.build();
+        TileMap tileMap = null;
+        List<Block> blocks = new ArrayList<>();
+        if (layout == TILE_MAP) {
+            tileMap = new TileMap(startX, startY, cellWidth, rowHeight, columns, rows);
+            // The types of the map are added in the order they first appear, like in a level of a text file.
+            int[] typeIds = new int[generators.length];
+            Arrays.fill(typeIds, -1);
+            for (int i = 0; i < blockCount; i++) {
+                int record = records + i * BLOCK_RECORD_BYTES;
+                int type = this.buffer.getShort(record + 4);
+                if (typeIds[type] < 0) {
+                    typeIds[type] = tileMap.addType(generators[type]);
+                }
+                tileMap.setTile((this.coordinate(record) - startX) / cellWidth,
+                    (this.coordinate(record + 2) - startY) / rowHeight, typeIds[type],
+                    generators[type].getNumOfHits());
+            }
+        } else {
+            for (int i = 0; i < blockCount; i++) {
+                int record = records + i * BLOCK_RECORD_BYTES;
+                int x = this.coordinate(record);
+                int y = this.coordinate(record + 2);
+                BlockGenerator generator = generators[this.buffer.getShort(record + 4)];
+                Block b = generator.create(x, y);
+                b.setRectangle(new Rectangle(new Point(x, y), generator.getWidth(), rowHeight));
+                b.setStroke(generator.getStroke());
+                b.setNumOfHits(generator.getNumOfHits());
+                blocks.add(b);
+            }
+        }
+        return new LevelCreation(levelName, velocities, LevelCreation.stringToBackground(background), paddleSpeed,
+            paddleWidth, numOfBlocks, blocks, tileMap);
+    } // level
+
+    /**
+     * @param position the position of a coordinate of a block in the pack.
+     * @return the coordinate (an unsigned short).
+     */
+    private int coordinate(int position) {
+        return this.buffer.getShort(position) & MAX_COORDINATE;
+    }
+
+    /**
+     * Create the block generators of a block set from their resolved types (new generators for each level, since the
+     * images of their blocks are scaled to the sizes of the blocks of the level).
+     * @param set the index of the block set.
+     * @return the generators, by the index of their type.
+     */
+    private BlockGenerator[] blockGenerators(int set) {
+        int position = this.buffer.getInt(HEADER_BYTES + (this.imageCount + set) * 4);
+        int types = this.buffer.getShort(position);
+        position += 2;
+        BlockGenerator[] generators = new BlockGenerator[types];
+        for (int type = 0; type < types; type++) {
+            BlockGenerator generator = new BlockGenerator();
+            generator.setWidth(this.buffer.getInt(position));
+            generator.setHeight(this.buffer.getInt(position + 4));
+            generator.setNumOfHits(this.buffer.getInt(position + 8));
+            if (this.buffer.get(position + 12) != 0) {
+                generator.setStroke(new Stroke(new Color(this.buffer.getInt(position + 13), true)));
+            }
+            int fills = this.buffer.getShort(position + 17);
+            position += 19;
+            for (int i = 0; i < fills; i++) {
+                int hits = this.buffer.getInt(position);
+                int value = this.buffer.getInt(position + 5);
+                if (this.buffer.get(position + 4) == IMAGE_FILL) {
+                    String path = readString(this.buffer.getInt(HEADER_BYTES + value * 4));
+                    generator.addBackground(hits, new BlockImageBackground(ImageCache.get(path)));
+                } else {
+                    generator.addBackground(hits, new BlockColorBackground(new Color(value, true)));
+                }
+                position += 9;
+            }
+            generators[type] = generator;
+        }
+        return generators;
+    }
+
+    /**
+     * @param position the position of a string in the pack.
+     * @return the string.
+     */
+    private String readString(int position) {
+        int length = this.buffer.getShort(position) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(position + 2);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param position the position of a string in the pack.
+     * @return the position after the string.
+     */
+    private int skipString(int position) {
+        return position + 2 + (this.buffer.getShort(position) & 0xFFFF);
+    }
+
+} // class LevelPack
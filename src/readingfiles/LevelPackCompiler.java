@@ -0,0 +1,387 @@
+package readingfiles;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import sprites.ColorsParser;
+import sprites.TileMap;
+
+/**
+ * The LevelPackCompiler class compiles level definitions files (and the block definitions files that they use) into
+ * a level pack, that LevelPack reads (the format is described there). It's run offline, before the game:
+ * java readingfiles.LevelPackCompiler output.pack definitions/easy_level_definitions.txt [more level files...]
+ * The level files and the block definitions files are read from the class path. The symbols of the blocks of each
+ * level are resolved to the positions and the types of the blocks, the properties of each type of blocks are
+ * resolved in the same way that BlocksDefinitionReader resolves them, and the layout of the blocks is decided in the
+ * same way that LevelCreation decides it, so the game only reads the results.
+ */
+public class LevelPackCompiler {
+    // Declare the members of the class.
+    // The index of each block definitions file in the pack, and the compiled block sets.
+    private Map<String, Integer> setIndexes = new TreeMap<>();
+    private List<BlockSet> sets = new ArrayList<>();
+    private List<byte[]> compiledLevels = new ArrayList<>();
+    // The index of each image of the blocks in the pack (by its resource path).
+    private Map<String, Integer> imageIds = new LinkedHashMap<>();
+
+    /**
+     * The BlockSet class keeps the types of the blocks of a block definitions file.
+     */
+    private static class BlockSet {
+        // The properties of each block symbol, by the order of the definitions.
+        private Map<String, List<String[]>> properties = new LinkedHashMap<>();
+        private Map<String, Integer> spacerWidths = new TreeMap<>();
+
+        /**
+         * @param symbol a block symbol.
+         * @return the index of the type of the symbol in the set.
+         */
+        private int typeOf(String symbol) {
+            return new ArrayList<>(this.properties.keySet()).indexOf(symbol);
+        }
+
+        /**
+         * @param symbol a block symbol.
+         * @param name the name of a property.
+         * @return the last value of the property of the symbol, or null if it has no such property.
+         */
+        private String property(String symbol, String name) {
+            String value = null;
+            for (String[] property : this.properties.get(symbol)) {
+                if (property[0].equals(name)) {
+                    value = property[1];
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Compile the given level definitions files into a level pack file.
+     * @param args the path of the pack file, followed by the resource paths of the level definitions files.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: LevelPackCompiler <output" + LevelPack.EXTENSION
+                + "> <level definitions file>...");
+            System.exit(1);
+        }
+        LevelPackCompiler compiler = new LevelPackCompiler();
+        for (int i = 1; i < args.length; i++) {
+            compiler.addLevels(args[i]);
+        }
+        try (OutputStream out = Files.newOutputStream(Paths.get(args[0]))) {
+            compiler.write(out);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+        System.out.println(compiler.compiledLevels.size() + " levels were compiled to " + args[0]);
+    }
+
+    /**
+     * Compile the levels of the given level definitions file.
+     * @param path the resource path of the level definitions file.
+     */
+    public void addLevels(String path) {
+        List<String> levels = LevelSpecificationReader.splitIntoLevels(new InputStreamReader(
+            Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResourceAsStream(path))));
+        for (String level : levels) {
+            this.compiledLevels.add(this.compileLevel(LevelSpecificationReader.splitLevelInformation(level)));
+        }
+    }
+
+    /**
+     * @param path the resource path of a block definitions file.
+     * @return the index of the block set of the file in the pack (the file is compiled the first time it's used).
+     */
+    private int blockSet(String path) {
+        Integer index = this.setIndexes.get(path);
+        if (index != null) {
+            return index;
+        }
+        BlockSet set = new BlockSet();
+        List<String> lines = BlocksDefinitionReader.relevantLines(new InputStreamReader(
+            Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResourceAsStream(path))));
+        List<String[]> defaultValues = new ArrayList<>();
+        for (String line : lines) {
+            if (line.startsWith("default ")) {
+                defaultValues = properties(line.replace("default ", "").split(" "));
+            } else if (line.startsWith("bdef ")) {
+                // The default values are applied first, and then the values of the definition override them.
+                List<String[]> blockProperties = new ArrayList<>(defaultValues);
+                blockProperties.addAll(properties(line.replace("bdef ", "").split(" ")));
+                String symbol = null;
+                for (String[] property : blockProperties) {
+                    if (property[0].equals("symbol")) {
+                        symbol = property[1];
+                    }
+                }
+                // Check the definition the way the game checks it (its required values and its fills).
+                BlocksDefinitionReader.blockGenerator(blockProperties);
+                set.properties.put(symbol, blockProperties);
+            } else if (line.startsWith("sdef ")) {
+                String[] featuresAndValues = line.replace("sdef ", "").split(" ");
+                set.spacerWidths.put(featuresAndValues[0].split(":")[1],
+                    Integer.parseInt(featuresAndValues[1].split(":")[1]));
+            } else {
+                throw new RuntimeException("The definition is not valid");
+            }
+        }
+        this.sets.add(set);
+        this.setIndexes.put(path, this.sets.size() - 1);
+        return this.sets.size() - 1;
+    }
+
+    /**
+     * @param pairs strings of the form key:value.
+     * @return the pairs of the keys and the values.
+     */
+    private static List<String[]> properties(String[] pairs) {
+        List<String[]> properties = new ArrayList<>();
+        for (String pair : pairs) {
+            String[] featureAndValue = pair.split(":");
+            properties.add(new String[] {featureAndValue[0], featureAndValue[1]});
+        }
+        return properties;
+    }
+
+    /**
+     * Compile a level.
+     * @param levelInfo a map that maps between features of the level and their values.
+     * @return the bytes of the level in the pack.
+     */
+    private byte[] compileLevel(Map<String, String> levelInfo) {
+        int setIndex = this.blockSet(levelInfo.get("block_definitions"));
+        BlockSet set = this.sets.get(setIndex);
+        int startX = Integer.parseInt(levelInfo.get("blocks_start_x"));
+        int startY = Integer.parseInt(levelInfo.get("blocks_start_y"));
+        int rowHeight = Integer.parseInt(levelInfo.get("row_height"));
+        List<String> rows = LevelCreation.blockInfoLines(levelInfo);
+        // Resolve the symbols to the records of the blocks (x, y and type), and check whether they fit a grid.
+        List<int[]> records = new ArrayList<>();
+        boolean grid = true;
+        int cellWidth = 0;
+        int columns = 0;
+        int y = startY;
+        for (String row : rows) {
+            int x = startX;
+            for (int j = 0; j < row.length(); j++) {
+                String symbol = Character.toString(row.charAt(j));
+                if (set.properties.containsKey(symbol)) {
+                    int blockWidth = Integer.parseInt(set.property(symbol, "width"));
+                    if (cellWidth == 0) {
+                        cellWidth = blockWidth;
+                    }
+                    if (blockWidth != cellWidth
+                        || Integer.parseInt(set.property(symbol, "hit_points")) > TileMap.MAX_HITS) {
+                        grid = false;
+                    }
+                    records.add(new int[] {x, y, set.typeOf(symbol)});
+                    x = x + blockWidth;
+                } else if (set.spacerWidths.containsKey(symbol)) {
+                    x = x + set.spacerWidths.get(symbol);
+                } else {
+                    throw new RuntimeException("The symbol is unknown");
+                }
+            }
+            columns = Math.max(columns, x - startX);
+            y = y + rowHeight;
+        }
+        if (cellWidth <= 0) {
+            grid = false;
+        }
+        for (int i = 0; grid && i < rows.size(); i++) {
+            for (int j = 0; j < rows.get(i).length(); j++) {
+                Integer spaceWidth = set.spacerWidths.get(Character.toString(rows.get(i).charAt(j)));
+                if (spaceWidth != null && spaceWidth % cellWidth != 0) {
+                    grid = false;
+                }
+            }
+        }
+        if (grid && records.stream().mapToInt(r -> r[2]).distinct().count() > TileMap.MAX_TYPES) {
+            grid = false;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, levelInfo.get("level_name"));
+            String velocities = levelInfo.get("ball_velocities");
+            String[] splitedVelocities = velocities.contains(" ") ? velocities.split(" ") : new String[] {velocities};
+            out.writeShort(splitedVelocities.length);
+            for (String velocity : splitedVelocities) {
+                String[] angleAndSpeed = velocity.split(",");
+                out.writeInt(Integer.parseInt(angleAndSpeed[0]));
+                out.writeInt(Integer.parseInt(angleAndSpeed[1]));
+            }
+            writeString(out, levelInfo.get("background"));
+            out.writeInt(Integer.parseInt(levelInfo.get("paddle_speed")));
+            out.writeInt(Integer.parseInt(levelInfo.get("paddle_width")));
+            out.writeInt(startX);
+            out.writeInt(startY);
+            out.writeInt(rowHeight);
+            out.writeInt(Integer.parseInt(levelInfo.get("num_blocks")));
+            out.writeInt(setIndex);
+            out.writeByte(grid ? LevelPack.TILE_MAP : LevelPack.BLOCK_LIST);
+            out.writeInt(grid ? cellWidth : 0);
+            out.writeInt(grid ? columns / cellWidth : 0);
+            out.writeInt(rows.size());
+            out.writeInt(records.size());
+            for (int[] record : records) {
+                if (record[0] < 0 || record[0] > LevelPack.MAX_COORDINATE || record[1] < 0
+                    || record[1] > LevelPack.MAX_COORDINATE) {
+                    throw new RuntimeException("The position of a block is out of the range 0 to "
+                        + LevelPack.MAX_COORDINATE);
+                }
+                out.writeShort(record[0]);
+                out.writeShort(record[1]);
+                out.writeShort(record[2]);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+        return bytes.toByteArray();
+    } // compileLevel
+
+    /**
+     * Write the pack of the compiled levels.
+     * @param output the stream that the pack is written to.
+     * @throws IOException if the writing failed.
+     */
+    public void write(OutputStream output) throws IOException {
+        List<byte[]> compiledSets = new ArrayList<>();
+        for (BlockSet set : this.sets) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(set.properties.size());
+            for (List<String[]> type : set.properties.values()) {
+                this.writeBlockType(out, type);
+            }
+            out.flush();
+            compiledSets.add(bytes.toByteArray());
+        }
+        // The images are numbered while the sets are compiled.
+        List<byte[]> compiledImages = new ArrayList<>();
+        for (String path : this.imageIds.keySet()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeString(out, path);
+            out.flush();
+            compiledImages.add(bytes.toByteArray());
+        }
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(LevelPack.MAGIC);
+        out.writeInt(LevelPack.VERSION);
+        out.writeInt(compiledImages.size());
+        out.writeInt(compiledSets.size());
+        out.writeInt(this.compiledLevels.size());
+        // The images, the sets and the levels follow the header and the table of their offsets.
+        int offset = LevelPack.HEADER_BYTES
+            + (compiledImages.size() + compiledSets.size() + this.compiledLevels.size()) * 4;
+        for (byte[] part : compiledImages) {
+            out.writeInt(offset);
+            offset = offset + part.length;
+        }
+        for (byte[] part : compiledSets) {
+            out.writeInt(offset);
+            offset = offset + part.length;
+        }
+        for (byte[] part : this.compiledLevels) {
+            out.writeInt(offset);
+            offset = offset + part.length;
+        }
+        for (byte[] part : compiledImages) {
+            out.write(part);
+        }
+        for (byte[] part : compiledSets) {
+            out.write(part);
+        }
+        for (byte[] part : this.compiledLevels) {
+            out.write(part);
+        }
+        out.flush();
+    }
+
+    /**
+     * Resolve the properties of a type of blocks and write the type (the properties are applied in their order, so
+     * a later value of a property overrides an earlier one, and the numbers of hits that don't have a fill of their
+     * own use the default fill, like in BlocksDefinitionReader).
+     * @param out a stream.
+     * @param properties the pairs of the names and the values of the properties of the type.
+     * @throws IOException if the writing failed.
+     */
+    private void writeBlockType(DataOutputStream out, List<String[]> properties) throws IOException {
+        ColorsParser parser = new ColorsParser();
+        int width = 0;
+        int height = 0;
+        int hits = 0;
+        Color stroke = null;
+        String defaultFill = null;
+        Map<Integer, String> fills = new TreeMap<>();
+        for (String[] property : properties) {
+            String feature = property[0];
+            if (feature.equals("width")) {
+                width = Integer.parseInt(property[1]);
+            } else if (feature.equals("height")) {
+                height = Integer.parseInt(property[1]);
+            } else if (feature.equals("hit_points")) {
+                hits = Integer.parseInt(property[1]);
+            } else if (feature.startsWith("fill-")) {
+                fills.put(Integer.parseInt(feature.replace("fill-", "")), property[1]);
+            } else if (feature.startsWith("fill")) {
+                defaultFill = property[1];
+            } else if (feature.equals("stroke")) {
+                stroke = parser.colorFromString(property[1]);
+            }
+        }
+        for (int i = 1; i <= hits; i++) {
+            if (!fills.containsKey(i)) {
+                fills.put(i, defaultFill);
+            }
+        }
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(hits);
+        out.writeByte(stroke == null ? 0 : 1);
+        out.writeInt(stroke == null ? 0 : stroke.getRGB());
+        out.writeShort(fills.size());
+        for (Map.Entry<Integer, String> fill : fills.entrySet()) {
+            String value = fill.getValue();
+            out.writeInt(fill.getKey());
+            if (value.startsWith("color(")) {
+                out.writeByte(LevelPack.COLOR_FILL);
+                out.writeInt(parser.colorFromString(value).getRGB());
+            } else if (value.startsWith("image(")) {
+                String path = value.replace("image(", "").replace(")", "");
+                this.imageIds.putIfAbsent(path, this.imageIds.size());
+                out.writeByte(LevelPack.IMAGE_FILL);
+                out.writeInt(this.imageIds.get(path));
+            } else {
+                throw new RuntimeException("The fill " + value + " is not valid");
+            }
+        }
+    } // writeBlockType
+
+    /**
+     * @param out a stream.
+     * @param value a string that should be written as its length and its UTF-8 bytes.
+     * @throws IOException if the writing failed.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+} // class LevelPackCompiler
@@ -94,6 +94,9 @@ public class LevelSpecificationReader {
     }
 
     /**
+     * The information of all the levels is parsed and checked now (so a level definitions file that isn't valid
+     * fails when it's read), but the images of each level are decoded and its blocks are laid out only when the
+     * level is loaded, so the levels can be loaded one by one while the game is played (see LevelPrefetcher).
      * @param reader the reader is connected to the file that contains all the information of the levels.
      * @return LevelInformation list - LevelInformation is an object that contains an information of a level.
      */
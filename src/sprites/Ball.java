@@ -4,24 +4,30 @@ import java.awt.Color;
 import arkanoidgame.GameEnvironment;
 import arkanoidgame.Velocity;
 import biuoop.DrawSurface;
-import collision.Collidable;
-import collision.CollisionInfo;
-import geometry.Line;
 import geometry.Point;
-import geometry.Rectangle;
 import levels.GameLevel;
 
 /**
  * The Ball class represents a ball that has a center, radius, color, velocity, and surface boundaries.
  * The ball also has a game environment of obstacles it can collide with.
+ * The state of the ball is kept in a slot of a BallSystem (the ball is a handle to the slot). A ball that isn't in a
+ * system (a new ball, until it's added to a game, or a ball that was removed from its system) keeps its state in
+ * fields of its own, so creating and removing balls doesn't create systems.
  */
 public class Ball implements Sprite {
     // Declare the members of the class.
-    private Point center;
-    private int r;
-    private java.awt.Color color;
-    private Velocity velocity;
-    private GameEnvironment gameEnvironment;
+    private BallSystem system = null;
+    private int slot = -1;
+    // The number that the cycling colors of the ball are chosen by (it stays the same when the ball changes slots).
+    private int colorEntity = Palette.newEntity();
+    // The state of the ball while it isn't in a system.
+    private double x;
+    private double y;
+    private double dx = 0;
+    private double dy = 0;
+    private int radius;
+    private Color color;
+    private GameEnvironment environment = null;
 
     /**
      * Constructor.
@@ -30,152 +36,197 @@ public class Ball implements Sprite {
      * @param color the color of the ball.
      */
     public Ball(Point center, int r, java.awt.Color color) {
-        this.center = new Point(center.getX(), center.getY());
-        this.r = r;
+        this(center.getX(), center.getY(), r, color);
+    }
+
+    /**
+     * Constructor - create a ball that isn't in a system.
+     * @param x the x value of the center of the ball.
+     * @param y the y value of the center of the ball.
+     * @param r the radius of the ball.
+     * @param color the color of the ball.
+     */
+    Ball(double x, double y, int r, Color color) {
+        this.x = x;
+        this.y = y;
+        this.radius = r;
         this.color = color;
     }
 
+    /**
+     * Attach the ball to a slot of a ball system (called by the system when the ball is added or moved).
+     * @param ballSystem the system that holds the state of the ball.
+     * @param ballSlot the slot of the ball in the system.
+     */
+    void attach(BallSystem ballSystem, int ballSlot) {
+        this.system = ballSystem;
+        this.slot = ballSlot;
+    }
+
+    /**
+     * @return the number that identifies the ball when its color cycles.
+     */
+    int getColorEntity() {
+        return this.colorEntity;
+    }
+
+    /**
+     * Detach the ball from its slot (called by the system when the ball is removed). The last state of the ball is
+     * kept in the fields of the ball.
+     */
+    void detach() {
+        this.x = this.system.getX(this.slot);
+        this.y = this.system.getY(this.slot);
+        this.dx = this.system.getDx(this.slot);
+        this.dy = this.system.getDy(this.slot);
+        this.radius = this.system.getRadius(this.slot);
+        this.color = this.system.getColor(this.slot);
+        this.environment = this.system.getGameEnvironment();
+        this.system = null;
+        this.slot = -1;
+    }
+
+    /**
+     * Remove the ball from its current system (if it's in a system).
+     */
+    void removeFromSystem() {
+        if (this.system != null) {
+            this.system.remove(this);
+        }
+    }
+
+    /**
+     * Move the ball to a system of its own (for a ball that is moved while it isn't in a system).
+     */
+    private void attachToOwnSystem() {
+        new BallSystem(this.environment).add(this, this.x, this.y, this.radius, this.color, this.dx, this.dy);
+    }
+
+    /**
+     * @return the system that holds the state of the ball (null if the ball isn't in a system).
+     */
+    BallSystem getSystem() {
+        return this.system;
+    }
+
+    /**
+     * @return the slot of the ball in its system.
+     */
+    int getSlot() {
+        return this.slot;
+    }
+
     /**
      * @param gameEnv a game environment of obstacles the ball can collide with.
      */
     public void setGameEnvironment(GameEnvironment gameEnv) {
-        this.gameEnvironment = gameEnv;
+        if (this.system == null) {
+            this.environment = gameEnv;
+        } else {
+            this.system.setGameEnvironment(gameEnv);
+        }
     }
 
     /**
      * @return the x value of the center of the ball.
      */
     public double getX() {
-        return this.center.getX();
+        return this.system == null ? this.x : this.system.getX(this.slot);
     }
 
     /**
      * @return the y value of the center of the ball.
      */
     public double getY() {
-        return this.center.getY();
+        return this.system == null ? this.y : this.system.getY(this.slot);
     }
 
     /**
      * @return the size (the radius) of the ball.
      */
     public int getSize() {
-        return this.r;
+        return this.system == null ? this.radius : this.system.getRadius(this.slot);
     }
 
     /**
      * @return the current velocity of the ball.
      */
     public Velocity getVelocity() {
-        return this.velocity;
+        if (this.system == null) {
+            return new Velocity(this.dx, this.dy);
+        }
+        return new Velocity(this.system.getDx(this.slot), this.system.getDy(this.slot));
     }
 
     /**
-     * @param v a new velocity for the ball.
+     * @return the dx value of the velocity of the ball.
      */
-    public void setVelocity(Velocity v) {
-        this.velocity = v;
+    double getDx() {
+        return this.system == null ? this.dx : this.system.getDx(this.slot);
     }
 
     /**
-     * @param dx the dx value of the velocity (the change on the x-axis).
-     * @param dy the dy value of the velocity (the change on the y-axis).
+     * @return the dy value of the velocity of the ball.
      */
-    public void setVelocity(double dx, double dy) {
-         this.velocity = new Velocity(dx, dy);
-     }
+    double getDy() {
+        return this.system == null ? this.dy : this.system.getDy(this.slot);
+    }
 
     /**
-     * @return the center point of the ball.
+     * @param v a new velocity for the ball.
      */
-    public Point getCenter() {
-        return this.center;
+    public void setVelocity(Velocity v) {
+        this.setVelocity(v.getDx(), v.getDy());
     }
 
     /**
-     * @param newCenter the new center of the ball.
+     * @param newDx the dx value of the velocity (the change on the x-axis).
+     * @param newDy the dy value of the velocity (the change on the y-axis).
      */
-    public void setCenter(Point newCenter) {
-        this.center = newCenter;
+    public void setVelocity(double newDx, double newDy) {
+        if (this.system == null) {
+            this.dx = newDx;
+            this.dy = newDy;
+        } else {
+            this.system.setVelocity(this.slot, newDx, newDy);
+        }
     }
 
     /**
-     * @param ballColor the new color to set to the ball.
+     * @return the center point of the ball.
      */
-    public void setColor(Color ballColor) {
-        this.color = ballColor;
+    public Point getCenter() {
+        return new Point(this.getX(), this.getY());
     }
 
     /**
-     * @param rec the rectangle that it's checked whether the x or the y values of the
-     * center of the ball are in its range.
-     * @return true if the x or the y values of the center of the ball are in the range of the given rectangle,
-     * false otherwise
+     * @param newCenter the new center of the ball.
      */
-    private boolean pointIsInRec(Rectangle rec) {
-        return rec.getUpperEdge().isInXRange(this.center.getX())
-            || rec.getLeftEdge().isInYRange(this.center.getY());
+    public void setCenter(Point newCenter) {
+        if (this.system == null) {
+            this.x = newCenter.getX();
+            this.y = newCenter.getY();
+        } else {
+            this.system.setCenter(this.slot, newCenter.getX(), newCenter.getY());
+        }
     }
 
     /**
-     * Do a move almost to the point.
-     * @param hitP the point from which the move is made.
-     * @return the new point the ball has reached to.
+     * @return the color of the ball.
      */
-    public Point almostHit(Point hitP) {
-        // Epsilon helps to move the ball "almost" to the hit point, in a case that there is a hit between
-        // the ball and one of the obstacles.
-        final double epsilon = 0.07;
-        double newCenterX;
-        double newCenterY;
-        if (this.velocity.getDx() <= 0) {
-            newCenterX = hitP.getX() + epsilon;
-        } else {
-            newCenterX = hitP.getX() - epsilon;
-        }
-        if (this.velocity.getDy() <= 0) {
-            newCenterY = hitP.getY() + epsilon;
-        } else {
-            newCenterY = hitP.getY() - epsilon;
-        }
-        // Promote the ball "almost" to the hit point, but just slightly before it.
-        return new Point(newCenterX, newCenterY);
+    public Color getColor() {
+        return this.system == null ? this.color : this.system.getColor(this.slot);
     }
 
     /**
-     * Perform the hit of the ball with the collidable.
-     * @param closestCollision the closest collision point of the collidable with the ball's trajectory.
-     * @param dt specifies the amount of seconds passed since the last call.
+     * @param ballColor the new color to set to the ball.
      */
-    private void hitWithCollidable(CollisionInfo closestCollision, double dt) {
-        Collidable collidable = closestCollision.collisionObject();
-        // Find the collision point between the paddle and the trajectory of the ball.
-        Point collisionPoint = closestCollision.collisionPoint();
-        double dx = getVelocity().getDx();
-        double dy = getVelocity().getDy();
-        double directionDx;
-        double directionDy;
-        double newCenterX;
-        double newCenterY;
-        // Find the direction of the dx & dy values (negative/positive).
-        if (dx < 0) {
-            directionDx = -1;
-        } else {
-            directionDx = 1;
-        }
-        if (dy < 0) {
-            directionDy = -1;
+    public void setColor(Color ballColor) {
+        if (this.system == null) {
+            this.color = ballColor;
         } else {
-            directionDy = 1;
+            this.system.setColor(this.slot, ballColor);
         }
-        // The new center of the ball according to the compatible directions.
-        this.setCenter(collisionPoint);
-        // Get to the hit point, using the radius of the ball and the directions.
-        newCenterX =  collisionPoint.getX() - (this.getSize() * directionDx);
-        newCenterY =  collisionPoint.getY() - (this.getSize() * directionDy);
-        this.center = new Point(newCenterX, newCenterY);
-        // Perform the hit with the collidable.
-        this.setVelocity(collidable.hit(this, collisionPoint, this.getVelocity(), dt));
     }
 
     /**
@@ -183,32 +234,23 @@ public class Ball implements Sprite {
      * @param dt specifies the amount of seconds passed since the last call.
      */
     public void moveOneStep(double dt) {
-        Colors colors = new Colors();
-        this.setColor(colors.setRainbowColor(-1));
-        // Find the end point of the current trajectory of the ball.
-        Point endOfTrajectory = this.velocity.applyToPoint(this.center, dt);
-        // Find the current trajectory of the ball (the movement from the center to the next step).
-        Line trajectory = new Line(this.getCenter(), endOfTrajectory);
-        // Get the information about the collision.
-        CollisionInfo closestCollision = this.gameEnvironment.getClosestCollision(trajectory);
-        // If moving on this trajectory will not hit anything.
-        if (closestCollision.collisionPoint() == null) {
-            // Promote the ball by the regular velocity.
-            this.setCenter(this.getVelocity().applyToPoint(this.center, dt));
-        // Otherwise (there is a hit), perform the hit with the collidable (the paddle or the block).
-        } else {
-            hitWithCollidable(closestCollision, dt);
-       }
-} // moveOneStep
+        if (this.system == null) {
+            this.attachToOwnSystem();
+        }
+        this.system.moveOneStep(this.slot, dt);
+    }
 
     /**
      * Draw the ball on the given surface.
      * @param surface the draw surface that the ball should be drawn on.
      */
     public void drawOn(DrawSurface surface) {
-        // Draw the ball on the given draw surface.
-        surface.setColor(this.color);
-        surface.fillCircle((int) this.getX(), (int) this.getY(), this.getSize());
+        if (this.system == null) {
+            surface.setColor(this.color);
+            surface.fillCircle((int) this.x, (int) this.y, this.radius);
+            return;
+        }
+        this.system.drawBall(this.slot, surface, 1);
     }
 
     /**
@@ -225,7 +267,7 @@ public class Ball implements Sprite {
      * @param g the game that the ball should be added to.
      */
     public void addToGame(GameLevel g) {
-        g.addSprite(this);
+        g.addBall(this);
     }
 
     /**
@@ -233,7 +275,7 @@ public class Ball implements Sprite {
      * @param game the game that the ball should be removed from.
      */
     public void removeFromGame(GameLevel game) {
-        game.removeSprite(this);
+        game.removeBall(this);
     }
 
 } // class Ball
\ No newline at end of file
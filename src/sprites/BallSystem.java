@@ -0,0 +1,551 @@
+package sprites;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import arkanoidgame.GameEnvironment;
+import arkanoidgame.Velocity;
+import biuoop.DrawSurface;
+import collision.Collidable;
+import geometry.Point;
+import geometry.SegmentHit;
+import levels.GameLevel;
+
+/**
+ * The BallSystem class holds the state of many balls in parallel arrays of primitives (positions, velocities, radii
+ * and colors), and moves all of them in one loop. Each Ball object is a handle to a slot in the arrays, so the balls
+ * can still be passed to the collidables and to the hit listeners.
+ * The balls are moved in rounds: first the closest hit of each ball is found against the game environment as it is
+ * at the start of the round (in parallel, when there are many balls), and then the hits are performed one by one in
+ * the order of the slots. So the hits (and the scores and the removed blocks) don't depend on the number of threads.
+ */
+public class BallSystem implements Sprite {
+    // The maximal number of hits that are handled in a single step of a ball.
+    private static final int MAX_HITS_PER_STEP = 4;
+    private static final int INITIAL_CAPACITY = 16;
+    // The number of balls that a single task resolves (fewer balls are resolved in the current thread).
+    private static final int PARALLEL_THRESHOLD = 256;
+    // The maximal number of parallel rounds in a step (a ball whose hit was found against a collidable that was removed
+    // earlier in the round is resolved again in the next round); the balls that are still moving after them are
+    // finished one by one.
+    private static final int MAX_ROUNDS = 2 * MAX_HITS_PER_STEP;
+    // Declare the members of the class.
+    private int count = 0;
+    private double[] x = new double[INITIAL_CAPACITY];
+    private double[] y = new double[INITIAL_CAPACITY];
+    // The centers of the balls before the last step (the balls are drawn between the previous and the current center).
+    private double[] previousX = new double[INITIAL_CAPACITY];
+    private double[] previousY = new double[INITIAL_CAPACITY];
+    private double[] dx = new double[INITIAL_CAPACITY];
+    private double[] dy = new double[INITIAL_CAPACITY];
+    private int[] radius = new int[INITIAL_CAPACITY];
+    private Color[] color = new Color[INITIAL_CAPACITY];
+    // The numbers that the cycling colors of the balls are chosen by (they move with the balls between the slots).
+    private int[] colorEntity = new int[INITIAL_CAPACITY];
+    private Ball[] handles = new Ball[INITIAL_CAPACITY];
+    // Balls that are removed while the balls are moving are only marked, and taken out after the loop.
+    private boolean[] removed = new boolean[INITIAL_CAPACITY];
+    private boolean stepping = false;
+    // The state of each ball during the step: the part of the step that is left to move, the number of hits so far,
+    // and the closest hit that was found in the current round.
+    private double[] remaining = new double[INITIAL_CAPACITY];
+    private int[] hitsCount = new int[INITIAL_CAPACITY];
+    private Collidable[] pendingCollidable = new Collidable[INITIAL_CAPACITY];
+    private SegmentHit[] pendingHit = new SegmentHit[INITIAL_CAPACITY];
+    // The slots of the balls that are still moving in the current step (in ascending order).
+    private int[] active = new int[INITIAL_CAPACITY];
+    private int activeCount = 0;
+    // A scratch space for the balls that are resolved in the current thread.
+    private List<Collidable> candidates = new ArrayList<>();
+    private SegmentHit scratchHit = new SegmentHit();
+    private GameEnvironment gameEnvironment;
+    // The information about the closest hit of the current step (reused in each step).
+    private SegmentHit closestHit = new SegmentHit();
+    // The time of the steps (in seconds), that the cycling colors of the balls are chosen by.
+    private double rainbowTime = 0;
+
+    /**
+     * Constructor.
+     * @param gameEnvironment a game environment of obstacles the balls can collide with.
+     */
+    public BallSystem(GameEnvironment gameEnvironment) {
+        this.gameEnvironment = gameEnvironment;
+    }
+
+    /**
+     * @param gameEnv a game environment of obstacles the balls can collide with.
+     */
+    public void setGameEnvironment(GameEnvironment gameEnv) {
+        this.gameEnvironment = gameEnv;
+    }
+
+    /**
+     * @return the game environment of obstacles the balls can collide with.
+     */
+    GameEnvironment getGameEnvironment() {
+        return this.gameEnvironment;
+    }
+
+    /**
+     * @return the number of the balls in the system.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Make sure that the arrays have room for one more ball (their size is doubled when they are full).
+     */
+    private void ensureCapacity() {
+        if (this.count < this.x.length) {
+            return;
+        }
+        int capacity = this.x.length * 2;
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.previousX = Arrays.copyOf(this.previousX, capacity);
+        this.previousY = Arrays.copyOf(this.previousY, capacity);
+        this.dx = Arrays.copyOf(this.dx, capacity);
+        this.dy = Arrays.copyOf(this.dy, capacity);
+        this.radius = Arrays.copyOf(this.radius, capacity);
+        this.color = Arrays.copyOf(this.color, capacity);
+        this.colorEntity = Arrays.copyOf(this.colorEntity, capacity);
+        this.handles = Arrays.copyOf(this.handles, capacity);
+        this.removed = Arrays.copyOf(this.removed, capacity);
+        this.remaining = Arrays.copyOf(this.remaining, capacity);
+        this.hitsCount = Arrays.copyOf(this.hitsCount, capacity);
+        this.pendingCollidable = Arrays.copyOf(this.pendingCollidable, capacity);
+        this.pendingHit = Arrays.copyOf(this.pendingHit, capacity);
+        this.active = Arrays.copyOf(this.active, capacity);
+    }
+
+    /**
+     * Add a ball to the system.
+     * @param ball the handle of the ball.
+     * @param centerX the x value of the center of the ball.
+     * @param centerY the y value of the center of the ball.
+     * @param r the radius of the ball.
+     * @param ballColor the color of the ball.
+     * @param velocityDx the dx value of the velocity of the ball.
+     * @param velocityDy the dy value of the velocity of the ball.
+     */
+    void add(Ball ball, double centerX, double centerY, int r, Color ballColor, double velocityDx,
+             double velocityDy) {
+        ensureCapacity();
+        int slot = this.count;
+        this.x[slot] = centerX;
+        this.y[slot] = centerY;
+        this.previousX[slot] = this.x[slot];
+        this.previousY[slot] = this.y[slot];
+        this.radius[slot] = r;
+        this.color[slot] = ballColor;
+        this.colorEntity[slot] = ball.getColorEntity();
+        this.dx[slot] = velocityDx;
+        this.dy[slot] = velocityDy;
+        this.handles[slot] = ball;
+        this.removed[slot] = false;
+        if (this.pendingHit[slot] == null) {
+            this.pendingHit[slot] = new SegmentHit();
+        }
+        this.count++;
+        ball.attach(this, slot);
+    }
+
+    /**
+     * Move the given ball (with its current state) from its current system to this system.
+     * @param ball the ball that should be moved to this system.
+     */
+    public void adopt(Ball ball) {
+        // The ball keeps its state in its own fields between the systems.
+        ball.removeFromSystem();
+        this.add(ball, ball.getX(), ball.getY(), ball.getSize(), ball.getColor(), ball.getDx(), ball.getDy());
+    }
+
+    /**
+     * Create a ball in the arrays of the system.
+     * @param centerX the x value of the center of the ball.
+     * @param centerY the y value of the center of the ball.
+     * @param r the radius of the ball.
+     * @param ballColor the color of the ball.
+     * @param velocityDx the dx value of the velocity of the ball.
+     * @param velocityDy the dy value of the velocity of the ball.
+     * @return the handle of the new ball.
+     */
+    public Ball spawn(double centerX, double centerY, int r, Color ballColor, double velocityDx, double velocityDy) {
+        Ball ball = new Ball(centerX, centerY, r, ballColor);
+        this.add(ball, centerX, centerY, r, ballColor, velocityDx, velocityDy);
+        return ball;
+    }
+
+    /**
+     * Remove the given ball from the system. If the balls are moving right now, the ball is only marked as removed
+     * (it stops moving), and it's taken out of the arrays at the end of the loop.
+     * @param ball the ball that should be removed.
+     */
+    public void remove(Ball ball) {
+        int slot = ball.getSlot();
+        if (slot < 0 || slot >= this.count || this.handles[slot] != ball) {
+            return;
+        }
+        // The ball keeps its last state in a system of its own.
+        ball.detach();
+        if (this.stepping) {
+            this.removed[slot] = true;
+        } else {
+            this.swapRemove(slot);
+        }
+    }
+
+    /**
+     * Take the ball out of the given slot, by moving the last ball to its place.
+     * @param slot the slot of the ball that should be taken out.
+     */
+    private void swapRemove(int slot) {
+        int last = this.count - 1;
+        if (slot != last) {
+            this.x[slot] = this.x[last];
+            this.y[slot] = this.y[last];
+            this.previousX[slot] = this.previousX[last];
+            this.previousY[slot] = this.previousY[last];
+            this.dx[slot] = this.dx[last];
+            this.dy[slot] = this.dy[last];
+            this.radius[slot] = this.radius[last];
+            this.color[slot] = this.color[last];
+            this.colorEntity[slot] = this.colorEntity[last];
+            this.handles[slot] = this.handles[last];
+            this.removed[slot] = this.removed[last];
+            this.handles[slot].attach(this, slot);
+        }
+        this.color[last] = null;
+        this.handles[last] = null;
+        this.removed[last] = false;
+        this.count--;
+    }
+
+    /**
+     * @param slot the slot of the ball.
+     * @return whether the ball in the slot was removed in the current loop.
+     */
+    boolean isRemoved(int slot) {
+        return this.removed[slot];
+    }
+
+    /**
+     * @param slot the slot of the ball.
+     * @return the x value of the center of the ball.
+     */
+    double getX(int slot) {
+        return this.x[slot];
+    }
+
+    /**
+     * @param slot the slot of the ball.
+     * @return the y value of the center of the ball.
+     */
+    double getY(int slot) {
+        return this.y[slot];
+    }
+
+    /**
+     * @param slot the slot of the ball.
+     * @param newX the new x value of the center of the ball.
+     * @param newY the new y value of the center of the ball.
+     */
+    void setCenter(int slot, double newX, double newY) {
+        this.x[slot] = newX;
+        this.y[slot] = newY;
+        // The ball is placed in the new center (it doesn't move there).
+        this.previousX[slot] = newX;
+        this.previousY[slot] = newY;
+    }
+
+    /**
+     * @param slot the slot of the ball.
+     * @return the dx value of the velocity of the ball.
+     */
+    double getDx(int slot) {
+        return this.dx[slot];
+    }
+
+    /**
+     * @param slot the slot of the ball.
+     * @return the dy value of the velocity of the ball.
+     */
+    double getDy(int slot) {
+        return this.dy[slot];
+    }
+
+    /**
+     * @param slot the slot of the ball.
+     * @param newDx the new dx value of the velocity of the ball.
+     * @param newDy the new dy value of the velocity of the ball.
+     */
+    void setVelocity(int slot, double newDx, double newDy) {
+        this.dx[slot] = newDx;
+        this.dy[slot] = newDy;
+    }
+
+    /**
+     * @param slot the slot of the ball.
+     * @return the radius of the ball.
+     */
+    int getRadius(int slot) {
+        return this.radius[slot];
+    }
+
+    /**
+     * @param slot the slot of the ball.
+     * @return the color of the ball.
+     */
+    Color getColor(int slot) {
+        return this.color[slot];
+    }
+
+    /**
+     * @param slot the slot of the ball.
+     * @param ballColor the new color of the ball.
+     */
+    void setColor(int slot, Color ballColor) {
+        this.color[slot] = ballColor;
+    }
+
+    /**
+     * Promote the ball in the given slot in one step depending on its velocity. The ball is swept as a circle along
+     * its movement, and if it hits several surfaces in one step, the rest of the movement is continued after each hit
+     * (up to MAX_HITS_PER_STEP hits).
+     * @param slot the slot of the ball.
+     * @param dt specifies the amount of seconds passed since the last call.
+     */
+    void moveOneStep(int slot, double dt) {
+        this.color[slot] = Palette.cycle(this.colorEntity[slot], this.rainbowTime);
+        Ball ball = this.handles[slot];
+        // The part of the step that is left to move.
+        double remaining = 1;
+        // The loop stops if the ball is removed by one of the hits.
+        for (int i = 0; i < MAX_HITS_PER_STEP && remaining > 0 && ball.getSystem() == this; i++) {
+            // Find the end point of the rest of the trajectory of the ball.
+            double endX = this.x[slot] + this.dx[slot] * dt * remaining;
+            double endY = this.y[slot] + this.dy[slot] * dt * remaining;
+            // Get the collidable of the closest collision (the information about the hit is kept in closestHit).
+            Collidable collidable = this.gameEnvironment.getClosestCollision(this.x[slot], this.y[slot], endX, endY,
+                this.radius[slot], this.closestHit);
+            // If moving on this trajectory will not hit anything, promote the ball to the end of the trajectory.
+            if (collidable == null) {
+                this.x[slot] = endX;
+                this.y[slot] = endY;
+                return;
+            }
+            // Otherwise (there is a hit), move the ball to the time of impact and perform the hit with the collidable.
+            double t = this.closestHit.getT();
+            remaining = remaining * (1 - t);
+            this.x[slot] = this.x[slot] + (endX - this.x[slot]) * t;
+            this.y[slot] = this.y[slot] + (endY - this.y[slot]) * t;
+            // The collision point and the velocity objects are created only when there is a hit.
+            Point collisionPoint = new Point(this.closestHit.getX(), this.closestHit.getY());
+            Velocity currentVelocity = new Velocity(this.dx[slot], this.dy[slot]);
+            Velocity newVelocity = collidable.hit(ball, collisionPoint, currentVelocity, dt);
+            this.dx[slot] = newVelocity.getDx();
+            this.dy[slot] = newVelocity.getDy();
+        }
+    } // moveOneStep
+
+    /**
+     * Find the closest hit of each of the given active balls, against the game environment as it is now.
+     * @param from the index of the first ball in the active balls.
+     * @param to the index after the last ball in the active balls.
+     * @param dt specifies the amount of seconds passed since the last call.
+     * @param candidateList a scratch list for the candidates of the searches.
+     * @param hit a scratch object for the hit of each candidate.
+     */
+    private void resolve(int from, int to, double dt, List<Collidable> candidateList, SegmentHit hit) {
+        for (int k = from; k < to; k++) {
+            int slot = this.active[k];
+            double endX = this.x[slot] + this.dx[slot] * dt * this.remaining[slot];
+            double endY = this.y[slot] + this.dy[slot] * dt * this.remaining[slot];
+            this.pendingCollidable[slot] = this.gameEnvironment.getClosestCollision(this.x[slot], this.y[slot],
+                endX, endY, this.radius[slot], this.pendingHit[slot], candidateList, hit);
+        }
+    }
+
+    /**
+     * Perform the hit that was found for the ball in the given slot in the current round (or promote the ball to the
+     * end of its trajectory if it doesn't hit anything).
+     * @param slot the slot of the ball.
+     * @param dt specifies the amount of seconds passed since the last call.
+     * @return true if the ball should keep moving in the next round, false otherwise.
+     */
+    private boolean commit(int slot, double dt) {
+        Collidable collidable = this.pendingCollidable[slot];
+        this.pendingCollidable[slot] = null;
+        if (this.removed[slot]) {
+            return false;
+        }
+        double endX = this.x[slot] + this.dx[slot] * dt * this.remaining[slot];
+        double endY = this.y[slot] + this.dy[slot] * dt * this.remaining[slot];
+        if (collidable == null) {
+            this.x[slot] = endX;
+            this.y[slot] = endY;
+            return false;
+        }
+        // If a ball before this one removed the collidable in the current round, resolve the ball again (a block is
+        // removed from the game environment during the hit that takes its last hit point).
+        if (!this.gameEnvironment.contains(collidable)) {
+            return true;
+        }
+        // Move the ball to the time of impact and perform the hit with the collidable.
+        SegmentHit hit = this.pendingHit[slot];
+        double t = hit.getT();
+        this.remaining[slot] = this.remaining[slot] * (1 - t);
+        this.x[slot] = this.x[slot] + (endX - this.x[slot]) * t;
+        this.y[slot] = this.y[slot] + (endY - this.y[slot]) * t;
+        Velocity newVelocity = collidable.hit(this.handles[slot], new Point(hit.getX(), hit.getY()),
+            new Velocity(this.dx[slot], this.dy[slot]), dt);
+        this.dx[slot] = newVelocity.getDx();
+        this.dy[slot] = newVelocity.getDy();
+        this.hitsCount[slot]++;
+        return this.hitsCount[slot] < MAX_HITS_PER_STEP && this.remaining[slot] > 0 && !this.removed[slot];
+    } // commit
+
+    /**
+     * Move all the balls in one step, and then take out the balls that were removed during the step.
+     * @param dt specifies the amount of seconds passed since the last call.
+     */
+    @Override
+    public void timePassed(double dt) {
+        this.stepping = true;
+        this.rainbowTime += dt;
+        System.arraycopy(this.x, 0, this.previousX, 0, this.count);
+        System.arraycopy(this.y, 0, this.previousY, 0, this.count);
+        this.activeCount = 0;
+        for (int i = 0; i < this.count; i++) {
+            if (!this.removed[i]) {
+                this.color[i] = Palette.cycle(this.colorEntity[i], this.rainbowTime);
+                this.remaining[i] = 1;
+                this.hitsCount[i] = 0;
+                this.active[this.activeCount++] = i;
+            }
+        }
+        for (int round = 0; round < MAX_ROUNDS && this.activeCount > 0; round++) {
+            // Resolve phase: the game environment is only read, so the balls can be resolved in parallel.
+            if (this.activeCount > PARALLEL_THRESHOLD) {
+                ForkJoinPool.commonPool().invoke(new ResolveTask(0, this.activeCount, dt));
+            } else {
+                this.resolve(0, this.activeCount, dt, this.candidates, this.scratchHit);
+            }
+            // Commit phase: the hits are performed in the order of the slots, in the current thread.
+            int kept = 0;
+            for (int k = 0; k < this.activeCount; k++) {
+                int slot = this.active[k];
+                if (this.commit(slot, dt)) {
+                    this.active[kept++] = slot;
+                }
+            }
+            this.activeCount = kept;
+        }
+        // Finish the balls that are still moving one by one, each against the game environment as it is now, so
+        // none of them loses the rest of its movement.
+        for (int k = 0; k < this.activeCount; k++) {
+            do {
+                this.resolve(k, k + 1, dt, this.candidates, this.scratchHit);
+            } while (this.commit(this.active[k], dt));
+        }
+        this.activeCount = 0;
+        this.stepping = false;
+        // Take out the removed balls (from the end, so the balls that are moved to their places were checked).
+        for (int i = this.count - 1; i >= 0; i--) {
+            if (this.removed[i]) {
+                this.swapRemove(i);
+            }
+        }
+    } // timePassed
+
+    /**
+     * Draw the ball in the given slot on the given surface.
+     * @param slot the slot of the ball.
+     * @param surface the draw surface that the ball should be drawn on.
+     * @param alpha the part of the way from the previous center of the ball to its current center.
+     */
+    void drawBall(int slot, DrawSurface surface, double alpha) {
+        double drawX = this.previousX[slot] + (this.x[slot] - this.previousX[slot]) * alpha;
+        double drawY = this.previousY[slot] + (this.y[slot] - this.previousY[slot]) * alpha;
+        surface.setColor(this.color[slot]);
+        surface.fillCircle((int) drawX, (int) drawY, this.radius[slot]);
+    }
+
+    /**
+     * Draw all the balls on the given surface.
+     * @param d the draw surface that the balls should be drawn on.
+     */
+    @Override
+    public void drawOn(DrawSurface d) {
+        this.drawOn(d, 1);
+    }
+
+    /**
+     * Draw all the balls on the given surface, between their previous and their current centers.
+     * @param d the draw surface that the balls should be drawn on.
+     * @param alpha the part of the way from the previous centers of the balls to their current centers.
+     */
+    @Override
+    public void drawOn(DrawSurface d, double alpha) {
+        for (int i = 0; i < this.count; i++) {
+            if (!this.removed[i]) {
+                this.drawBall(i, d, alpha);
+            }
+        }
+    }
+
+    @Override
+    public boolean addDrawnArea(DirtyRegion region, double alpha) {
+        for (int i = 0; i < this.count; i++) {
+            if (!this.removed[i]) {
+                double drawX = this.previousX[i] + (this.x[i] - this.previousX[i]) * alpha;
+                double drawY = this.previousY[i] + (this.y[i] - this.previousY[i]) * alpha;
+                region.addCircle((int) drawX, (int) drawY, this.radius[i]);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void addToGame(GameLevel g) {
+        g.addSprite(this);
+    }
+
+    /**
+     * The ResolveTask class resolves a range of the active balls, splitting it between the threads of the pool.
+     */
+    private class ResolveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private int from;
+        private int to;
+        private double dt;
+
+        /**
+         * Constructor.
+         * @param from the index of the first ball in the active balls.
+         * @param to the index after the last ball in the active balls.
+         * @param dt specifies the amount of seconds passed since the last call.
+         */
+        ResolveTask(int from, int to, double dt) {
+            this.from = from;
+            this.to = to;
+            this.dt = dt;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= PARALLEL_THRESHOLD) {
+                // Each task has a scratch space of its own.
+                resolve(this.from, this.to, this.dt, new ArrayList<>(), new SegmentHit());
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new ResolveTask(this.from, middle, this.dt), new ResolveTask(middle, this.to, this.dt));
+        }
+    } // class ResolveTask
+
+} // class BallSystem
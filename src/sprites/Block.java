@@ -6,14 +6,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+import arkanoidgame.GameEnvironment;
 import arkanoidgame.Velocity;
 import biuoop.DrawSurface;
 import collision.Collidable;
+import collision.HitEventBus;
 import collision.HitListener;
 import collision.HitNotifier;
-import geometry.Line;
+import geometry.AabbIntersection;
+import geometry.BoundingBox;
 import geometry.Point;
 import geometry.Rectangle;
+import geometry.SegmentHit;
 import levels.GameLevel;
 
 /**
@@ -22,13 +26,18 @@ import levels.GameLevel;
 public class Block implements Collidable, Sprite, HitNotifier {
     // Declare the members of the class.
     private Rectangle rectangle;
+    // The edges of the rectangle (computed when the rectangle is set, since the block doesn't move).
+    private BoundingBox bounds;
     private BlockBackground blockBackground = null;
     private Stroke stroke = null;
     // The number of hits that the ball should hit the block. Each hit decreases this number by 1.
     private int numOfHits;
     // A map that maps between the current number of hits of the block and the fit background.
     private Map<Integer, BlockBackground> hitsToBackground;
+    // The list is replaced (and not changed) when a listener is added or removed, so it can be iterated during a hit.
     private List<HitListener> hitListeners = new ArrayList<>();
+    // The bus of the hits of the level (if it's set, the level's listeners are notified by it).
+    private HitEventBus hitEventBus = null;
 
     /**
      * Constructor (first type).
@@ -40,6 +49,7 @@ public class Block implements Collidable, Sprite, HitNotifier {
      */
     public Block(Point location, double width, double height, int numOfHits, Color blockColor) {
         this.rectangle = new Rectangle(location, width, height);
+        this.bounds = new BoundingBox(this.rectangle);
         this.numOfHits = numOfHits;
         this.blockBackground = new BlockColorBackground(blockColor);
         this.stroke = null;
@@ -53,6 +63,7 @@ public class Block implements Collidable, Sprite, HitNotifier {
     public Block(Point location) {
         int initializedValue = 0;
         this.rectangle = new Rectangle(location, initializedValue, initializedValue);
+        this.bounds = new BoundingBox(this.rectangle);
         this.numOfHits = 1;
         this.hitsToBackground = new TreeMap<>();
     }
@@ -62,6 +73,7 @@ public class Block implements Collidable, Sprite, HitNotifier {
      */
     public void setWidth(int blockWidth) {
         this.rectangle.setWidth(blockWidth);
+        this.bounds = new BoundingBox(this.rectangle);
     }
 
     /**
@@ -69,6 +81,7 @@ public class Block implements Collidable, Sprite, HitNotifier {
      */
     public void setHeight(int blockHeight) {
         this.rectangle.setHeight(blockHeight);
+        this.bounds = new BoundingBox(this.rectangle);
     }
 
     /**
@@ -76,6 +89,7 @@ public class Block implements Collidable, Sprite, HitNotifier {
      */
     public void setRectangle(Rectangle rec) {
         this.rectangle = rec;
+        this.bounds = new BoundingBox(rec);
     }
 
     /**
@@ -99,6 +113,11 @@ public class Block implements Collidable, Sprite, HitNotifier {
         return this.rectangle;
     }
 
+    @Override
+    public BoundingBox getBounds() {
+        return this.bounds;
+    }
+
      /**
       * @return the number of the hits of the block.
       */
@@ -118,77 +137,51 @@ public class Block implements Collidable, Sprite, HitNotifier {
      }
 
      /**
-      * Return a new velocity of the ball in a case of hitting the corners of a block.
-      * @param collisionPoint the current collision with the block.
+      * Return a new velocity of the ball by the faces of the block that the ball hits (a hit in a corner of the
+      * block is a hit in two faces).
+      * @param faces the faces of the block that the ball hits.
       * @param currentVelocity the current velocity activated on the block.
       * @return the new velocity of the ball
       */
-    private Velocity collisionWithTheCorners(Point collisionPoint, Velocity currentVelocity) {
-        Rectangle recBlock = this.rectangle;
+    private Velocity velocityByFaces(int faces, Velocity currentVelocity) {
         double dx = currentVelocity.getDx();
         double dy = currentVelocity.getDy();
-        boolean flag = false;
         // If the ball hits the left edge.
-        if (recBlock.getLeftEdge().isInTheSegment(collisionPoint.getX(), collisionPoint.getY())) {
+        if ((faces & SegmentHit.LEFT) != 0) {
             dx = (-1) * Math.abs(dx);
-            flag = true;
         }
         // If the ball hits the right edge.
-        if (recBlock.getRightEdge().isInTheSegment(collisionPoint.getX(), collisionPoint.getY())) {
+        if ((faces & SegmentHit.RIGHT) != 0) {
             dx = Math.abs(dx);
-            flag = true;
         }
         // If the ball hits the upper edge.
-        if (recBlock.getUpperEdge().isInTheSegment(collisionPoint.getX(), collisionPoint.getY())) {
+        if ((faces & SegmentHit.TOP) != 0) {
             dy = (-1) * Math.abs(dy);
-            flag = true;
         }
         // If the ball hits the lower edge.
-        if (recBlock.getLowerEdge().isInTheSegment(collisionPoint.getX(), collisionPoint.getY())) {
+        if ((faces & SegmentHit.BOTTOM) != 0) {
             dy = Math.abs(dy);
-            flag = true;
-        }
-        if (!flag) {
-            return null;
         }
         return new Velocity(dx, dy);
-    } // collisionWithTheCorners
+    } // velocityByFaces
 
     @Override
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity, double dt) {
         // The hitter is the Ball that's doing the hitting. Save it in notifyHit.
         this.notifyHit(hitter);
-        // Get the dx & dy values of the velocity.
-        double newDx = currentVelocity.getDx();
-        double newDy = currentVelocity.getDy();
-        // Get the lengths of the rectangle.
-        Line leftEdge = this.getCollisionRectangle().getLeftEdge();
-        Line rightEdge = this.getCollisionRectangle().getRightEdge();
-        Line upperEdge = this.getCollisionRectangle().getUpperEdge();
-        Line lowerEdge = this.getCollisionRectangle().getLowerEdge();
-        Velocity newVelocityCorners = collisionWithTheCorners(collisionPoint, currentVelocity);
-        // Decrease the number of the hits of the block.
-        this.decreaseNumOfHits();
-        if (newVelocityCorners != null) {
-           return newVelocityCorners;
-       }
-        // If the ball collided with the left edge of the block.
-        if (leftEdge.isInTheSegment(collisionPoint.getX(), collisionPoint.getY())) {
-            newDx = (-1) * newDx;
-        }
-        // If the ball collided with the right edge of the block.
-        if (rightEdge.isInTheSegment(collisionPoint.getX(), collisionPoint.getY())) {
-            newDx = (-1) * newDx;
-        }
-        // If the ball collided with the upper edge of the block.
-        if (upperEdge.isInTheSegment(collisionPoint.getX(), collisionPoint.getY())) {
-            newDy = (-1) * newDy;
-        }
-        // If the ball collided with the lower edge of the block.
-        if (lowerEdge.isInTheSegment(collisionPoint.getX(), collisionPoint.getY())) {
-            newDy = (-1) * newDy;
+        HitEventBus bus = this.getHitEventBus();
+        if (bus != null) {
+            // The hits are decreased now, and the listeners of the level are notified when the bus is drained.
+            bus.post(this, hitter, collisionPoint.getX(), collisionPoint.getY());
+        } else {
+            // Decrease the number of the hits of the block.
+            this.decreaseNumOfHits();
         }
-        return new Velocity(newDx, newDy);
+        // Find the faces of the block that the collision point is on (without creating the edges of the rectangle).
+        BoundingBox box = this.getBounds();
+        int faces = AabbIntersection.facesAt(collisionPoint.getX(), collisionPoint.getY(), box.getMinX(),
+            box.getMinY(), box.getMaxX(), box.getMaxY());
+        return velocityByFaces(faces, currentVelocity);
     }
 
     /**
@@ -197,13 +190,14 @@ public class Block implements Collidable, Sprite, HitNotifier {
      */
     private void notifyHit(Ball hitter) {
         /*
-         * Calling the removeHitListener or the addHitListener methods from inside the notifyHit method,
-         * may cause an exception. For this reason, perform the iteration on a copy of hitListeners list instead.
+         * Calling the removeHitListener or the addHitListener methods from inside the notifyHit method replaces the
+         * list of the listeners, so the iteration goes on over the list that was taken before the hit (without
+         * copying it in each hit).
          */
-        List<HitListener> listeners = new ArrayList<>(this.hitListeners);
+        List<HitListener> listeners = this.getHitListenersList();
         // Notify all listeners about a hit event.
-        for (HitListener hl : listeners) {
-           hl.hitEvent(this, hitter);
+        for (int i = 0; i < listeners.size(); i++) {
+           listeners.get(i).hitEvent(this, hitter);
         }
      }
 
@@ -239,6 +233,11 @@ public class Block implements Collidable, Sprite, HitNotifier {
     public void timePassed(double dt) {
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     /**
      * Add the block to the game, calling the appropriate game methods.
      * @param game the game that the block should be added to.
@@ -257,14 +256,45 @@ public class Block implements Collidable, Sprite, HitNotifier {
         game.removeCollidable(this);
     }
 
+    /**
+     * Remove the block from the collidables of the given environment only (it's still drawn until it's removed from
+     * the game).
+     * @param environment the game environment that the block should be removed from.
+     */
+    public void removeFromEnvironment(GameEnvironment environment) {
+        environment.removeCollidable(this);
+    }
+
     @Override
     public void addHitListener(HitListener hl) {
-        this.hitListeners.add(hl);
+        List<HitListener> listeners = new ArrayList<>(this.hitListeners);
+        listeners.add(hl);
+        this.hitListeners = listeners;
     }
 
     @Override
     public void removeHitListener(HitListener hl) {
-        this.hitListeners.remove(hl);
+        if (this.hitListeners.contains(hl)) {
+            List<HitListener> listeners = new ArrayList<>(this.hitListeners);
+            listeners.remove(hl);
+            this.hitListeners = listeners;
+        }
+    }
+
+    /**
+     * Set the bus of the hits of the level: the hits of the block are written into it, and the listeners of the level
+     * are notified about them when the bus is drained.
+     * @param bus the bus of the hits.
+     */
+    public void setHitEventBus(HitEventBus bus) {
+        this.hitEventBus = bus;
+    }
+
+    /**
+     * @return the bus that the hits of the block are written into, or null if the block has no bus.
+     */
+    public HitEventBus getHitEventBus() {
+        return this.hitEventBus;
     }
 
     /**
@@ -13,6 +13,19 @@ public interface BlockBackground {
      * @param d a surface to draw on.
      * @param rec the block's shape.
      */
-    void draw(DrawSurface d, Rectangle rec);
+    default void draw(DrawSurface d, Rectangle rec) {
+        this.draw(d, (int) rec.getUpperLeft().getX(), (int) rec.getUpperLeft().getY(), (int) rec.getWidth(),
+            (int) rec.getHeight());
+    }
+
+    /**
+     * Draw the background of a block by the edges of the block (without creating its rectangle).
+     * @param d a surface to draw on.
+     * @param x the x value of the upper left point of the block.
+     * @param y the y value of the upper left point of the block.
+     * @param width the width of the block.
+     * @param height the height of the block.
+     */
+    void draw(DrawSurface d, int x, int y, int width, int height);
 
 } // BlockBackground interface
\ No newline at end of file
@@ -3,7 +3,6 @@ package sprites;
 import java.awt.Color;
 
 import biuoop.DrawSurface;
-import geometry.Rectangle;
 
 /**
  * The BlockColorBackground class implements BlockBackground interface and represents a color background of a block.
@@ -21,14 +20,10 @@ public class BlockColorBackground implements BlockBackground {
     }
 
     @Override
-    public void draw(DrawSurface d, Rectangle rec) {
+    public void draw(DrawSurface d, int x, int y, int width, int height) {
         // Draw the color background of the block on the draw surface.
         d.setColor(this.color);
-        int startX = (int) rec.getUpperLeft().getX();
-        int startY = (int) rec.getUpperLeft().getY();
-        int width = (int) rec.getWidth();
-        int height = (int) rec.getHeight();
-        d.fillRectangle(startX, startY, width, height);
+        d.fillRectangle(x, y, width, height);
     }
 
 } // class BlockColorBackground
\ No newline at end of file
@@ -1,17 +1,19 @@
 package sprites;
 
 import java.awt.Image;
+import java.awt.image.BufferedImage;
 
 import biuoop.DrawSurface;
-import geometry.Rectangle;
 
 /**
  * The BlockImageBackground class implements the BlockBackground interface. and represents an image background
- * of a block.
+ * of a block. When the level is loaded, the image can be replaced by a copy that is scaled to the size of the blocks
+ * (a part of the atlas of the level), which is drawn instead of it.
  */
 public class BlockImageBackground implements BlockBackground {
     // Declare the members of the class.
     private Image image;
+    private BufferedImage scaledImage;
 
     /**
      * Constructor.
@@ -21,12 +23,29 @@ public class BlockImageBackground implements BlockBackground {
         this.image = image;
     }
 
+    /**
+     * @return the image of the background.
+     */
+    public Image getImage() {
+        return this.image;
+    }
+
+    /**
+     * @param scaled a copy of the image that is scaled to the size of the blocks of the background.
+     */
+    public void setScaledImage(BufferedImage scaled) {
+        this.scaledImage = scaled;
+    }
+
     @Override
-    public void draw(DrawSurface d, Rectangle rec) {
+    public void draw(DrawSurface d, int x, int y, int width, int height) {
         // Draw the image of the block on a draw surface.
-        int startX = (int) rec.getUpperLeft().getX();
-        int startY = (int) rec.getUpperLeft().getY();
-        d.drawImage(startX, startY, this.image);
+        if (this.scaledImage != null && this.scaledImage.getWidth() == width
+            && this.scaledImage.getHeight() == height) {
+            d.drawImage(x, y, this.scaledImage);
+        } else {
+            d.drawImage(x, y, this.image);
+        }
     }
 
 } // class BlockImageBackground
\ No newline at end of file
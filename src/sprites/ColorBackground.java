@@ -42,6 +42,11 @@ public class ColorBackground implements Sprite {
     public void timePassed(double dt) {
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void addToGame(GameLevel g) {
         g.addSprite(this);
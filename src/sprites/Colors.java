@@ -1,7 +1,6 @@
 package sprites;
 
 import java.awt.Color;
-import java.util.Random;
 
 /**
  * The Colors class is a helper class that helps to create colors for the game.
@@ -16,15 +15,12 @@ public class Colors {
      * @param colorIndex the number that represents the rainbow color.
      */
     public Color setRainbowColor(int colorIndex) {
-        Random rand = new Random();
-        Color[] rainbowColor = {Color.red, Color.orange, Color.yellow.brighter(), Color.green, Color.cyan,
-        Color.blue, Color.magenta};
         // If the number is in the range 0-6, return the rainbow color corresponding to the index.
-        if (colorIndex >= 0 && colorIndex < rainbowColor.length) {
-            return rainbowColor[colorIndex];
+        if (colorIndex >= 0 && colorIndex < Palette.rainbowSize()) {
+            return Palette.rainbow(colorIndex);
         }
         // Else - return a random rainbow color.
-        return rainbowColor[rand.nextInt(rainbowColor.length)];
+        return Palette.randomRainbow();
     }
 
 } // class Colors.
\ No newline at end of file
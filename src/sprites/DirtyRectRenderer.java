@@ -0,0 +1,118 @@
+package sprites;
+
+import java.awt.image.BufferedImage;
+
+import animation.BatchingDrawSurface;
+import animation.CommandBuffer;
+import animation.FrameExchange;
+import animation.ImageDrawSurface;
+import arkanoidgame.HandleList;
+import biuoop.DrawSurface;
+
+/**
+ * The DirtyRectRenderer class draws the frames of a sprite collection on images that are kept between the frames.
+ * In each frame, only the rectangles that the dynamic sprites covered in the last frame that was drawn on the image
+ * or cover in this frame are restored from the static layer, and then the dynamic sprites are drawn over them. The
+ * whole frame is restored only when the static layer changes, or when a dynamic sprite doesn't report the area that
+ * it covers. In the pipelined mode, each slot of the FrameExchange has an image of its own, since the render thread
+ * may still be drawing the frames of the other slots (that keep references to their images). Otherwise a frame is
+ * shown before the next one is drawn, so a single image is used (the images are created only when they are first
+ * used).
+ */
+public class DirtyRectRenderer {
+    // If the dirty rectangles cover more than this part of the screen, the whole frame is restored at once.
+    private static final double MAX_DIRTY_PART = 0.5;
+    private static final int FRAMES = FrameExchange.BUFFERS;
+    // Declare the members of the class.
+    private BufferedImage[] frames = new BufferedImage[FRAMES];
+    private ImageDrawSurface[] frameSurfaces = new ImageDrawSurface[FRAMES];
+    // The areas of the dynamic sprites that were drawn on each image.
+    private DirtyRegion[] drawnRegions = new DirtyRegion[FRAMES];
+    // The version of the static layer that each image was restored from (or -1 if the image should be restored).
+    private long[] layerVersions = new long[FRAMES];
+    private DirtyRegion currentRegion = new DirtyRegion();
+    private BatchingDrawSurface batch = new BatchingDrawSurface();
+
+    /**
+     * Constructor.
+     */
+    public DirtyRectRenderer() {
+        for (int i = 0; i < FRAMES; i++) {
+            this.drawnRegions[i] = new DirtyRegion();
+            this.layerVersions[i] = -1;
+        }
+    }
+
+    /**
+     * Draw a frame on the given surface.
+     * @param d a surface you can draw on.
+     * @param layer the layer of the static sprites.
+     * @param staticSprites the static sprites, in the order they should be drawn.
+     * @param dynamicSprites the dynamic sprites, in the order they should be drawn.
+     * @param alpha the part of the way from the previous state of the sprites to their current state.
+     */
+    public void drawOn(DrawSurface d, StaticLayer layer, HandleList<Sprite> staticSprites,
+                       HandleList<Sprite> dynamicSprites, double alpha) {
+        int width = d.getWidth();
+        int height = d.getHeight();
+        // A frame that isn't recorded on a slot of the FrameExchange is drawn on the first image.
+        int f = d instanceof CommandBuffer ? Math.max(0, ((CommandBuffer) d).getSlot()) : 0;
+        layer.update(width, height, staticSprites);
+        if (this.frames[f] == null || this.frames[f].getWidth() != width || this.frames[f].getHeight() != height) {
+            if (this.frameSurfaces[f] != null) {
+                this.frameSurfaces[f].dispose();
+            }
+            this.frames[f] = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            this.frameSurfaces[f] = new ImageDrawSurface(this.frames[f]);
+            this.layerVersions[f] = -1;
+        }
+        ImageDrawSurface frameSurface = this.frameSurfaces[f];
+        // Collect the areas that the dynamic sprites cover in this frame.
+        this.currentRegion.clear();
+        boolean knownAreas = true;
+        for (int i = 0; i < dynamicSprites.slots() && knownAreas; i++) {
+            Sprite s = dynamicSprites.get(i);
+            if (s != null) {
+                knownAreas = s.addDrawnArea(this.currentRegion, alpha);
+            }
+        }
+        // The layer may also be updated by other animations that draw the sprites (like the countdown).
+        boolean layerChanged = layer.getVersion() != this.layerVersions[f];
+        long dirtyArea = this.drawnRegions[f].area() + this.currentRegion.area();
+        if (layerChanged || !knownAreas || dirtyArea > MAX_DIRTY_PART * width * height) {
+            frameSurface.copyArea(layer.getImage(), 0, 0, width, height);
+        } else {
+            // Erase the dynamic sprites of the last frame on this image, and clean the areas of this frame.
+            restore(frameSurface, layer, this.drawnRegions[f]);
+            restore(frameSurface, layer, this.currentRegion);
+        }
+        this.batch.begin(frameSurface);
+        for (int i = 0; i < dynamicSprites.slots(); i++) {
+            Sprite s = dynamicSprites.get(i);
+            if (s != null) {
+                s.drawOn(this.batch, alpha);
+            }
+        }
+        this.batch.flush();
+        // If the areas are unknown, the next frame on this image can't know what to erase.
+        this.layerVersions[f] = knownAreas ? layer.getVersion() : -1;
+        DirtyRegion swap = this.drawnRegions[f];
+        this.drawnRegions[f] = this.currentRegion;
+        this.currentRegion = swap;
+        d.drawImage(0, 0, this.frames[f]);
+    } // drawOn
+
+    /**
+     * Copy the rectangles of the given region from the static layer to a frame.
+     * @param frameSurface the surface of the frame.
+     * @param layer the layer of the static sprites.
+     * @param region the rectangles that should be copied.
+     */
+    private void restore(ImageDrawSurface frameSurface, StaticLayer layer, DirtyRegion region) {
+        for (int i = 0; i < region.size(); i++) {
+            frameSurface.copyArea(layer.getImage(), region.getX(i), region.getY(i), region.getWidth(i),
+                region.getHeight(i));
+        }
+    }
+
+} // class DirtyRectRenderer
@@ -0,0 +1,103 @@
+package sprites;
+
+import java.util.Arrays;
+
+/**
+ * The DirtyRegion class holds the rectangles of the screen (in whole pixels) that changed since the previous frame.
+ * The rectangles are kept in an array of ints (4 for each rectangle) and the object is reused in every frame.
+ */
+public class DirtyRegion {
+    // Declare the members of the class.
+    private int[] rectangles = new int[64];
+    private int count = 0;
+
+    /**
+     * Add a rectangle to the region.
+     * @param x the x value of the upper left point of the rectangle.
+     * @param y the y value of the upper left point of the rectangle.
+     * @param width the width of the rectangle.
+     * @param height the height of the rectangle.
+     */
+    public void add(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (this.count * 4 == this.rectangles.length) {
+            this.rectangles = Arrays.copyOf(this.rectangles, this.rectangles.length * 2);
+        }
+        int i = this.count * 4;
+        this.rectangles[i] = x;
+        this.rectangles[i + 1] = y;
+        this.rectangles[i + 2] = width;
+        this.rectangles[i + 3] = height;
+        this.count++;
+    }
+
+    /**
+     * Add a square around a circle to the region (with a margin of one pixel for the rounding of the drawing).
+     * @param centerX the x value of the center of the circle.
+     * @param centerY the y value of the center of the circle.
+     * @param radius the radius of the circle.
+     */
+    public void addCircle(int centerX, int centerY, int radius) {
+        this.add(centerX - radius - 1, centerY - radius - 1, 2 * radius + 3, 2 * radius + 3);
+    }
+
+    /**
+     * Remove all the rectangles from the region.
+     */
+    public void clear() {
+        this.count = 0;
+    }
+
+    /**
+     * @return the number of the rectangles in the region.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * @return the sum of the areas of the rectangles of the region (the areas that overlap are counted again).
+     */
+    public long area() {
+        long area = 0;
+        for (int i = 0; i < this.count; i++) {
+            area = area + (long) this.rectangles[i * 4 + 2] * this.rectangles[i * 4 + 3];
+        }
+        return area;
+    }
+
+    /**
+     * @param i the index of a rectangle.
+     * @return the x value of the upper left point of the rectangle.
+     */
+    public int getX(int i) {
+        return this.rectangles[i * 4];
+    }
+
+    /**
+     * @param i the index of a rectangle.
+     * @return the y value of the upper left point of the rectangle.
+     */
+    public int getY(int i) {
+        return this.rectangles[i * 4 + 1];
+    }
+
+    /**
+     * @param i the index of a rectangle.
+     * @return the width of the rectangle.
+     */
+    public int getWidth(int i) {
+        return this.rectangles[i * 4 + 2];
+    }
+
+    /**
+     * @param i the index of a rectangle.
+     * @return the height of the rectangle.
+     */
+    public int getHeight(int i) {
+        return this.rectangles[i * 4 + 3];
+    }
+
+} // class DirtyRegion
@@ -41,6 +41,11 @@ public class ImageBackground implements Sprite {
     public void timePassed(double dt) {
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void addToGame(GameLevel g) {
         g.addSprite(this);
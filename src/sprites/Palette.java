@@ -0,0 +1,119 @@
+package sprites;
+
+import java.awt.Color;
+import java.util.Random;
+
+/**
+ * The Palette class keeps the rainbow colors of the game in a table that is created once, and chooses colors from it
+ * without creating any objects. A random color is taken from a random generator of the current thread, and the
+ * cycling colors (of the balls, the paddle and the titles) are chosen by the time of the game: the color of an entity
+ * changes RAINBOW_CHANGES_PER_SECOND times in any second, no matter how often it's asked for, and it's a hash of the
+ * seed, the entity and the time, so a game that is run again with the same seed has the same colors.
+ */
+public final class Palette {
+    // The number of times in any second that a cycling color changes (it used to change in each frame of 60).
+    public static final int RAINBOW_CHANGES_PER_SECOND = 60;
+    // The rainbow colors, in accordance with the order of the rainbow (0- red, 1- orange etc..).
+    private static final Color[] RAINBOW = {Color.red, Color.orange, Color.yellow.brighter(), Color.green,
+        Color.cyan, Color.blue, Color.magenta};
+    private static volatile long seed = System.nanoTime();
+    // The number of times that the seed was set, so the generator of each thread knows when to start again from it.
+    private static volatile int seedVersion = 0;
+    private static final ThreadLocal<SeededRandom> RANDOM = ThreadLocal.withInitial(SeededRandom::new);
+
+    /**
+     * The class has only static methods.
+     */
+    private Palette() {
+    }
+
+    /**
+     * Set the seed of the colors: the random generator of each thread starts again from the seed (the next time the
+     * thread takes a random value), and the cycling colors are chosen by it.
+     * @param newSeed the seed.
+     */
+    public static synchronized void setSeed(long newSeed) {
+        seed = newSeed;
+        // The version is written after the seed, so a thread that sees the new version sees the new seed too.
+        seedVersion++;
+    }
+
+    /**
+     * @return the random generator of the current thread, started again from the seed if it was set since the last
+     * time the thread used it.
+     */
+    private static Random random() {
+        SeededRandom random = RANDOM.get();
+        int version = seedVersion;
+        if (random.version != version) {
+            random.setSeed(seed);
+            random.version = version;
+        }
+        return random;
+    }
+
+    /**
+     * @return the number of the rainbow colors.
+     */
+    public static int rainbowSize() {
+        return RAINBOW.length;
+    }
+
+    /**
+     * @param colorIndex the number of the color in the range 0-6 (0- red, 1- orange etc..).
+     * @return the rainbow color of the given number.
+     */
+    public static Color rainbow(int colorIndex) {
+        return RAINBOW[colorIndex];
+    }
+
+    /**
+     * @return a random rainbow color.
+     */
+    public static Color randomRainbow() {
+        return RAINBOW[random().nextInt(RAINBOW.length)];
+    }
+
+    /**
+     * @return a random number that identifies an entity whose color cycles.
+     */
+    public static int newEntity() {
+        return random().nextInt();
+    }
+
+    /**
+     * Return the color of the given entity at the given time. The color stays the same during each
+     * 1 / RAINBOW_CHANGES_PER_SECOND seconds, and it's different for different entities at the same time.
+     * @param entity the number of the entity.
+     * @param seconds the time of the game (in seconds) that the color is chosen for.
+     * @return the rainbow color of the entity at the given time.
+     */
+    public static Color cycle(int entity, double seconds) {
+        return RAINBOW[cycleIndex(entity, seconds)];
+    }
+
+    /**
+     * @param entity the number of the entity.
+     * @param seconds the time of the game (in seconds) that the color is chosen for.
+     * @return the number of the rainbow color of the entity at the given time (the color that cycle returns).
+     */
+    public static int cycleIndex(int entity, double seconds) {
+        long tick = (long) (seconds * RAINBOW_CHANGES_PER_SECOND);
+        // Mix the seed, the entity and the tick (the finalizer of SplitMix64), so the colors look random.
+        long h = seed + entity * 0x9E3779B97F4A7C15L + tick * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h = h ^ (h >>> 31);
+        return (int) ((h >>> 1) % RAINBOW.length);
+    }
+
+    /**
+     * The SeededRandom class is the random generator of a thread, with the version of the seed it started from.
+     */
+    private static final class SeededRandom extends Random {
+        private static final long serialVersionUID = 1L;
+        // Declare the members of the class (-1 until the generator starts from the seed).
+        private int version = -1;
+    } // class SeededRandom
+
+} // class Palette
@@ -14,12 +14,42 @@ public interface Sprite {
      */
     void drawOn(DrawSurface d);
 
+    /**
+     * Draw the Sprite on the screen, between its previous state and its current state (sprites that move override
+     * this method to draw the position in between, and the rest of the sprites draw their current state).
+     * @param d a surface you can draw on.
+     * @param alpha the part of the way from the previous state to the current state (0 to 1).
+     */
+    default void drawOn(DrawSurface d, double alpha) {
+        this.drawOn(d);
+    }
+
+    /**
+     * Add the areas of the screen that the sprite covers when it's drawn with the given alpha to the given region,
+     * so only these areas are drawn again in the next frame (sprites that move override this method).
+     * @param region the region that the areas should be added to.
+     * @param alpha the part of the way from the previous state to the current state (0 to 1).
+     * @return true if the areas were added, false if the sprite doesn't know them (so the whole frame is drawn).
+     */
+    default boolean addDrawnArea(DirtyRegion region, double alpha) {
+        return false;
+    }
+
     /**
      * Notify the sprite that time has passed.
      * @param dt specifies the number of seconds passed since the last call.
      */
     void timePassed(double dt);
 
+    /**
+     * A static sprite doesn't change when time passes (its timePassed method does nothing), so it's only drawn, and
+     * it isn't notified that time has passed.
+     * @return true if the sprite is static, false otherwise.
+     */
+    default boolean isStatic() {
+        return false;
+    }
+
     /**
      * Add the Sprite to the game, calling the appropriate game methods.
      * @param g the game that the sprite should be added to.
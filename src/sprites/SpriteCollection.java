@@ -1,20 +1,32 @@
 package sprites;
-import java.util.ArrayList;
 import java.util.List;
+import animation.BatchingDrawSurface;
+import arkanoidgame.HandleList;
 import biuoop.DrawSurface;
 
 /**
  * The SpriteCollection class represents a collection of sprites that are in the game.
+ * All the sprites are drawn (in the order of the list), but only the dynamic sprites (the sprites that are not
+ * static) are notified that time has passed, so the cost of a step depends on the number of the moving sprites.
+ * The static sprites are drawn together as one layer (an image that is drawn again only when they change), under the
+ * dynamic sprites. The primitives of the dynamic sprites are recorded and drawn grouped by their color.
+ * The sprites are kept in handle lists, so a sprite is removed in O(1) (its slot is left empty), even while the
+ * sprites are notified that time has passed. The empty slots are taken out before the next iteration.
  */
 public class SpriteCollection {
     // Declare the members of the class.
-    private List<Sprite> spritesList = new ArrayList<>();
+    private HandleList<Sprite> spritesList = new HandleList<>();
+    private HandleList<Sprite> dynamicSprites = new HandleList<>();
+    private HandleList<Sprite> staticSprites = new HandleList<>();
+    private StaticLayer staticLayer = new StaticLayer();
+    private DirtyRectRenderer dirtyRenderer = new DirtyRectRenderer();
+    private BatchingDrawSurface batch = new BatchingDrawSurface();
 
     /**
-     * @return the sprites list.
+     * @return a new list of the sprites, in the order they are drawn.
      */
     public List<Sprite> getSprites() {
-        return this.spritesList;
+        return this.spritesList.toList();
     }
 
     /**
@@ -23,31 +35,120 @@ public class SpriteCollection {
      */
     public void addSprite(Sprite s) {
         this.spritesList.add(s);
+        if (!s.isStatic()) {
+            this.dynamicSprites.add(s);
+        } else {
+            this.staticSprites.add(s);
+            this.staticLayer.invalidate();
+        }
+    }
+
+    /**
+     * Add the given sprite to the Sprite collection, so it's drawn before (under) all the other sprites.
+     * @param s the sprite that should be add to the Sprite collection.
+     */
+    public void addSpriteToBack(Sprite s) {
+        this.spritesList.addFirst(s);
+        if (!s.isStatic()) {
+            this.dynamicSprites.addFirst(s);
+        } else {
+            this.staticSprites.addFirst(s);
+            this.staticLayer.invalidate();
+        }
+    }
+
+    /**
+     * Remove the given sprite from the Sprite collection.
+     * @param s the sprite that should be removed from the Sprite collection.
+     */
+    public void removeSprite(Sprite s) {
+        this.spritesList.remove(s);
+        if (!s.isStatic()) {
+            this.dynamicSprites.remove(s);
+        } else if (this.staticSprites.remove(s)) {
+            this.staticLayer.invalidate();
+        }
+    }
+
+    /**
+     * Mark the layer of the static sprites as out of date (for example, when a block is hit and its appearance
+     * changes), so it's drawn again in the next frame.
+     */
+    public void invalidateStaticLayer() {
+        this.staticLayer.invalidate();
     }
 
     /**
-     * Notify each one of the sprites in the list that time has passed.
+     * Notify each one of the dynamic sprites in the list that time has passed.
      * @param dt specifies the number of seconds passed since the last call.
      */
     public void notifyAllTimePassed(double dt) {
         Sprite pointerToList;
-        // Run over the list of the sprites and notify each one of them that time has passed.
-        for (int i = 0; i < this.spritesList.size(); i++) {
-            pointerToList = this.spritesList.get(i);
-            pointerToList.timePassed(dt);
+        this.dynamicSprites.compact();
+        // Run over the list of the dynamic sprites and notify each one of them that time has passed (a sprite that
+        // is removed meanwhile leaves an empty slot, so the rest of the sprites keep their slots).
+        for (int i = 0; i < this.dynamicSprites.slots(); i++) {
+            pointerToList = this.dynamicSprites.get(i);
+            if (pointerToList != null) {
+                pointerToList.timePassed(dt);
+            }
         }
     }
 
     /**
-     * Call drawOn(d) from all the sprites.
+     * Draw the layer of the static sprites, and then call drawOn(d) from all the dynamic sprites.
      * @param d a surface you can draw on.
      */
     public void drawAllOn(DrawSurface d) {
+        this.compact();
+        this.staticLayer.drawOn(d, this.staticSprites);
+        this.batch.begin(d);
         Sprite pointerToList;
-        for (int i = 0; i < this.spritesList.size(); i++) {
-            pointerToList = this.spritesList.get(i);
-            pointerToList.drawOn(d);
+        for (int i = 0; i < this.dynamicSprites.slots(); i++) {
+            pointerToList = this.dynamicSprites.get(i);
+            if (pointerToList != null) {
+                pointerToList.drawOn(this.batch);
+            }
         }
+        this.batch.flush();
+    }
+
+    /**
+     * Draw the layer of the static sprites, and then call drawOn(d, alpha) from all the dynamic sprites.
+     * @param d a surface you can draw on.
+     * @param alpha the part of the way from the previous state of the sprites to their current state.
+     */
+    public void drawAllOn(DrawSurface d, double alpha) {
+        this.compact();
+        this.staticLayer.drawOn(d, this.staticSprites);
+        this.batch.begin(d);
+        for (int i = 0; i < this.dynamicSprites.slots(); i++) {
+            Sprite s = this.dynamicSprites.get(i);
+            if (s != null) {
+                s.drawOn(this.batch, alpha);
+            }
+        }
+        this.batch.flush();
+    }
+
+    /**
+     * Draw the sprites like drawAllOn(d, alpha), but on a frame that is kept between the calls, so only the areas
+     * that the dynamic sprites covered in the previous frame or cover in this frame are drawn again.
+     * @param d a surface you can draw on.
+     * @param alpha the part of the way from the previous state of the sprites to their current state.
+     */
+    public void drawDirtyOn(DrawSurface d, double alpha) {
+        this.compact();
+        this.dirtyRenderer.drawOn(d, this.staticLayer, this.staticSprites, this.dynamicSprites, alpha);
+    }
+
+    /**
+     * Take out the empty slots of the removed sprites (when there are enough of them).
+     */
+    private void compact() {
+        this.spritesList.compact();
+        this.dynamicSprites.compact();
+        this.staticSprites.compact();
     }
 
 } // class SpriteCollection
\ No newline at end of file
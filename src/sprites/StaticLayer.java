@@ -0,0 +1,125 @@
+package sprites;
+
+import java.awt.image.BufferedImage;
+
+import animation.BatchingDrawSurface;
+import animation.CommandBuffer;
+import animation.FrameExchange;
+import animation.ImageDrawSurface;
+import arkanoidgame.HandleList;
+import biuoop.DrawSurface;
+
+/**
+ * The StaticLayer class keeps the static sprites of a collection (the background, the borders, the blocks and the
+ * indicators) drawn on a single image. The image is drawn again only after the layer is invalidated (when a static
+ * sprite is added or removed, or when a block is hit and its appearance or the score may change), so in the rest of
+ * the frames all of them are drawn on the screen as one image. In the pipelined mode, the frames only keep a
+ * reference to the image, and the render thread may still draw any of the frames of the FrameExchange from it, so
+ * the layer remembers the image that the frame of each slot draws, and it's drawn again on an image that none of
+ * them draws (it has one image more than the slots, so there's always such an image).
+ */
+public class StaticLayer {
+    private static final int IMAGES = FrameExchange.BUFFERS + 1;
+    // Declare the members of the class.
+    private BufferedImage[] images = new BufferedImage[IMAGES];
+    private BufferedImage image;
+    // The image that the frame of each slot of the FrameExchange draws (null if it doesn't draw the layer).
+    private BufferedImage[] drawnBySlot = new BufferedImage[FrameExchange.BUFFERS];
+    private boolean valid = false;
+    // The number of times that the image was drawn.
+    private long version = 0;
+    // Groups the primitives of the static sprites by their color when the image is drawn.
+    private BatchingDrawSurface batch = new BatchingDrawSurface();
+
+    /**
+     * Mark the image of the layer as out of date, so it's drawn again before it's used the next time.
+     */
+    public void invalidate() {
+        this.valid = false;
+    }
+
+    /**
+     * Draw the image of the layer again if it's out of date.
+     * @param width the width of the surface that the layer is drawn on.
+     * @param height the height of the surface that the layer is drawn on.
+     * @param staticSprites the static sprites of the layer, in the order they should be drawn.
+     */
+    public void update(int width, int height, HandleList<Sprite> staticSprites) {
+        if (this.image == null || this.image.getWidth() != width || this.image.getHeight() != height) {
+            this.valid = false;
+        }
+        if (this.valid) {
+            return;
+        }
+        int free = this.freeImage();
+        if (this.images[free] == null || this.images[free].getWidth() != width
+            || this.images[free].getHeight() != height) {
+            // The image is transparent where no static sprite is drawn.
+            this.images[free] = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        this.image = this.images[free];
+        ImageDrawSurface imageSurface = new ImageDrawSurface(this.image);
+        imageSurface.clear();
+        this.batch.begin(imageSurface);
+        for (int i = 0; i < staticSprites.slots(); i++) {
+            Sprite s = staticSprites.get(i);
+            if (s != null) {
+                s.drawOn(this.batch);
+            }
+        }
+        this.batch.flush();
+        imageSurface.dispose();
+        this.valid = true;
+        this.version++;
+    }
+
+    /**
+     * @return the index of an image that isn't drawn by the frame of any slot.
+     */
+    private int freeImage() {
+        for (int i = 0; i < IMAGES; i++) {
+            boolean used = false;
+            for (int slot = 0; slot < this.drawnBySlot.length && !used; slot++) {
+                used = this.images[i] != null && this.images[i] == this.drawnBySlot[slot];
+            }
+            if (!used) {
+                return i;
+            }
+        }
+        // Not reached: the slots use at most IMAGES - 1 images.
+        throw new IllegalStateException("All the images of the layer are in use");
+    }
+
+    /**
+     * @return the number of times that the image of the layer was drawn (it changes whenever the image changes).
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return the image of the layer (as it was drawn in the last update).
+     */
+    public BufferedImage getImage() {
+        return this.image;
+    }
+
+    /**
+     * Draw the layer on the given surface, drawing its image again first if it's out of date.
+     * @param d a surface you can draw on.
+     * @param staticSprites the static sprites of the layer, in the order they should be drawn.
+     */
+    public void drawOn(DrawSurface d, HandleList<Sprite> staticSprites) {
+        int slot = d instanceof CommandBuffer ? ((CommandBuffer) d).getSlot() : -1;
+        if (slot >= 0) {
+            // The frame that was recorded on the slot before is replaced, so it doesn't draw its image anymore.
+            this.drawnBySlot[slot] = null;
+        }
+        this.update(d.getWidth(), d.getHeight(), staticSprites);
+        d.drawImage(0, 0, this.image);
+        if (slot >= 0) {
+            this.drawnBySlot[slot] = this.image;
+        }
+    }
+
+} // class StaticLayer
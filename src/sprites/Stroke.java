@@ -3,7 +3,6 @@ package sprites;
 import java.awt.Color;
 
 import biuoop.DrawSurface;
-import geometry.Rectangle;
 
 /**
  * The Stroke class is responsible to draw a stroke to the block.
@@ -21,14 +20,10 @@ public class Stroke implements BlockBackground {
     }
 
     @Override
-    public void draw(DrawSurface d, Rectangle rec) {
-        int startX = (int) rec.getUpperLeft().getX();
-        int startY = (int) rec.getUpperLeft().getY();
-        int width = (int) rec.getWidth();
-        int height = (int) rec.getHeight();
+    public void draw(DrawSurface d, int x, int y, int width, int height) {
         d.setColor(this.strokeColor);
         // Draw the outline of the block (a rectangle shape).
-        d.drawRectangle(startX, startY, width, height);
+        d.drawRectangle(x, y, width, height);
     }
 
 } // class Stroke
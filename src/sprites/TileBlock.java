@@ -0,0 +1,105 @@
+package sprites;
+
+import java.util.List;
+
+import arkanoidgame.GameEnvironment;
+import collision.HitEventBus;
+import collision.HitListener;
+import geometry.Point;
+import geometry.Rectangle;
+import levels.GameLevel;
+
+/**
+ * The TileBlock class represents a block in a cell of a TileMap. It's created when the cell is hit, and it passes
+ * the hit and the requests of the hit listeners (like removing the block) to the map.
+ */
+public class TileBlock extends Block {
+    // Declare the members of the class.
+    private TileMap tileMap;
+    private int cell;
+
+    /**
+     * Constructor.
+     * @param tileMap the map that the block is in.
+     * @param cell the index of the cell of the block in the map.
+     */
+    TileBlock(TileMap tileMap, int cell) {
+        super(new Point(tileMap.cellMinX(cell), tileMap.cellMinY(cell)));
+        this.tileMap = tileMap;
+        this.cell = cell;
+        this.setRectangle(new Rectangle(new Point(tileMap.cellMinX(cell), tileMap.cellMinY(cell)),
+            tileMap.getCellWidth(), tileMap.getCellHeight()));
+    }
+
+    /**
+     * @return the map that the block is in.
+     */
+    public TileMap getTileMap() {
+        return this.tileMap;
+    }
+
+    /**
+     * @return the index of the cell of the block in the map.
+     */
+    public int getCell() {
+        return this.cell;
+    }
+
+    @Override
+    public int getHitPoints() {
+        return this.tileMap.getHitPoints(this.cell);
+    }
+
+    @Override
+    public void decreaseNumOfHits() {
+        this.tileMap.decreaseHitPoints(this.cell);
+    }
+
+    @Override
+    public void setNumOfHits(int hits) {
+        this.tileMap.setHitPoints(this.cell, hits);
+    }
+
+    /**
+     * Remove the block from the map (the cells of the map are the collidables of the map).
+     * @param environment the game environment that the map is in.
+     */
+    @Override
+    public void removeFromEnvironment(GameEnvironment environment) {
+        this.tileMap.removeTile(this.cell);
+    }
+
+    /**
+     * Remove the block from the map (clear its cell).
+     * @param game the game that the block should be removed from.
+     */
+    @Override
+    public void removeFromGame(GameLevel game) {
+        this.tileMap.removeTile(this.cell);
+    }
+
+    @Override
+    public void addHitListener(HitListener hl) {
+        this.tileMap.addHitListener(hl);
+    }
+
+    /**
+     * The hit listeners are shared by all the blocks of the map, so they are not removed for a single block (a block
+     * that was removed from the map isn't hit anymore).
+     * @param hl the hit listener.
+     */
+    @Override
+    public void removeHitListener(HitListener hl) {
+    }
+
+    @Override
+    public HitEventBus getHitEventBus() {
+        return this.tileMap.getHitEventBus();
+    }
+
+    @Override
+    public List<HitListener> getHitListenersList() {
+        return this.tileMap.getHitListenersList();
+    }
+
+} // class TileBlock
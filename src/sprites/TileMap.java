@@ -0,0 +1,327 @@
+package sprites;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import biuoop.DrawSurface;
+import collision.Collidable;
+import collision.HitEventBus;
+import collision.HitListener;
+import geometry.AabbIntersection;
+import geometry.SegmentHit;
+import levels.GameLevel;
+
+/**
+ * The TileMap class holds the blocks of a level whose blocks are laid out on a grid of equal cells. Instead of an
+ * object for each block, each cell keeps only the id of the type of its block and its number of hits, and a BitSet
+ * marks the cells that still have a block. A trajectory is checked only against the occupied cells that it passes
+ * near, and removing a block clears its bit. A TileBlock object is created for a cell only when the cell is hit, so
+ * the collidables and the hit listeners still work with blocks.
+ */
+public class TileMap implements Sprite {
+    // The maximal number of types and the maximal number of hits of a block in the map (each is kept in a byte).
+    public static final int MAX_TYPES = 256;
+    public static final int MAX_HITS = Byte.MAX_VALUE;
+    // Declare the members of the class.
+    private double originX;
+    private double originY;
+    private double cellWidth;
+    private double cellHeight;
+    private int columns;
+    private int rows;
+    private List<BlockGenerator> types = new ArrayList<>();
+    // The backgrounds of each type by the number of hits (backgrounds[type][hits]).
+    private List<BlockBackground[]> backgrounds = new ArrayList<>();
+    private byte[] typeIds;
+    private byte[] hitPoints;
+    private BitSet occupied;
+    // The hit listeners and the bus of the hits are shared by all the blocks of the map (the list of the listeners
+    // is replaced when a listener is added).
+    private List<HitListener> hitListeners = new ArrayList<>();
+    private HitEventBus hitEventBus = null;
+
+    /**
+     * Constructor.
+     * @param originX the x value of the upper left point of the map.
+     * @param originY the y value of the upper left point of the map.
+     * @param cellWidth the width of each cell.
+     * @param cellHeight the height of each cell.
+     * @param columns the number of the columns of the map.
+     * @param rows the number of the rows of the map.
+     */
+    public TileMap(double originX, double originY, double cellWidth, double cellHeight, int columns, int rows) {
+        this.originX = originX;
+        this.originY = originY;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.columns = columns;
+        this.rows = rows;
+        this.typeIds = new byte[columns * rows];
+        this.hitPoints = new byte[columns * rows];
+        this.occupied = new BitSet(columns * rows);
+    }
+
+    /**
+     * Add a type of blocks to the map.
+     * @param generator the block generator that describes the blocks of the type (their backgrounds and stroke).
+     * @return the id of the type.
+     */
+    public int addType(BlockGenerator generator) {
+        if (this.types.size() == MAX_TYPES) {
+            throw new RuntimeException("There are too many types of blocks in the tile map.");
+        }
+        int maxHits = generator.getNumOfHits();
+        for (int hits : generator.getHitsToBackground().keySet()) {
+            maxHits = Math.max(maxHits, hits);
+        }
+        BlockBackground[] typeBackgrounds = new BlockBackground[maxHits + 1];
+        for (int hits : generator.getHitsToBackground().keySet()) {
+            if (hits >= 0) {
+                typeBackgrounds[hits] = generator.getHitsToBackground().get(hits);
+            }
+        }
+        this.types.add(generator);
+        this.backgrounds.add(typeBackgrounds);
+        return this.types.size() - 1;
+    }
+
+    /**
+     * Put a block in the given cell.
+     * @param column the column of the cell.
+     * @param row the row of the cell.
+     * @param typeId the id of the type of the block.
+     * @param hits the number of hits that the ball should hit the block.
+     */
+    public void setTile(int column, int row, int typeId, int hits) {
+        if (hits > MAX_HITS) {
+            throw new RuntimeException("The number of hits of a block in the tile map is too big.");
+        }
+        int cell = row * this.columns + column;
+        this.typeIds[cell] = (byte) typeId;
+        this.hitPoints[cell] = (byte) hits;
+        this.occupied.set(cell);
+    }
+
+    /**
+     * @return the number of the blocks that are in the map.
+     */
+    public int size() {
+        return this.occupied.cardinality();
+    }
+
+    /**
+     * @param cell the index of a cell.
+     * @return true if the cell has a block, false otherwise.
+     */
+    public boolean isOccupied(int cell) {
+        return this.occupied.get(cell);
+    }
+
+    /**
+     * @param c a collidable.
+     * @return true if the collidable is a block of this map that is still in the map, false otherwise.
+     */
+    public boolean contains(Collidable c) {
+        if (!(c instanceof TileBlock)) {
+            return false;
+        }
+        TileBlock tile = (TileBlock) c;
+        return tile.getTileMap() == this && this.occupied.get(tile.getCell());
+    }
+
+    /**
+     * @param cell the index of a cell.
+     * @return the x value of the left edge of the cell.
+     */
+    double cellMinX(int cell) {
+        return this.originX + (cell % this.columns) * this.cellWidth;
+    }
+
+    /**
+     * @param cell the index of a cell.
+     * @return the y value of the upper edge of the cell.
+     */
+    double cellMinY(int cell) {
+        return this.originY + (cell / this.columns) * this.cellHeight;
+    }
+
+    /**
+     * @return the width of each cell.
+     */
+    double getCellWidth() {
+        return this.cellWidth;
+    }
+
+    /**
+     * @return the height of each cell.
+     */
+    double getCellHeight() {
+        return this.cellHeight;
+    }
+
+    /**
+     * @param cell the index of a cell.
+     * @return the number of hits of the block in the cell.
+     */
+    int getHitPoints(int cell) {
+        return this.hitPoints[cell];
+    }
+
+    /**
+     * Decrease the number of the hits of the block in the given cell by 1 (down to 0).
+     * @param cell the index of a cell.
+     */
+    void decreaseHitPoints(int cell) {
+        if (this.hitPoints[cell] > 0) {
+            this.hitPoints[cell]--;
+        }
+    }
+
+    /**
+     * @param cell the index of a cell.
+     * @param hits the new number of the hits of the block in the cell.
+     */
+    void setHitPoints(int cell, int hits) {
+        this.hitPoints[cell] = (byte) hits;
+    }
+
+    /**
+     * Remove the block in the given cell from the map.
+     * @param cell the index of a cell.
+     */
+    void removeTile(int cell) {
+        this.occupied.clear(cell);
+    }
+
+    /**
+     * @return the list of the hit listeners of the blocks of the map.
+     */
+    List<HitListener> getHitListenersList() {
+        return this.hitListeners;
+    }
+
+    /**
+     * Add a hit listener to all the blocks of the map.
+     * @param hl the hit listener that should be added.
+     */
+    public void addHitListener(HitListener hl) {
+        List<HitListener> listeners = new ArrayList<>(this.hitListeners);
+        listeners.add(hl);
+        this.hitListeners = listeners;
+    }
+
+    /**
+     * Set the bus that the hits of all the blocks of the map are written into.
+     * @param bus the bus of the hits.
+     */
+    public void setHitEventBus(HitEventBus bus) {
+        this.hitEventBus = bus;
+    }
+
+    /**
+     * @return the bus of the hits of the blocks of the map, or null if the map has no bus.
+     */
+    HitEventBus getHitEventBus() {
+        return this.hitEventBus;
+    }
+
+    /**
+     * @param cell the index of an occupied cell.
+     * @return a block that represents the given cell.
+     */
+    public TileBlock tileAt(int cell) {
+        return new TileBlock(this, cell);
+    }
+
+    /**
+     * Find the closest hit of a ball (a circle) whose center moves along the segment from (x1, y1) to (x2, y2), with
+     * the blocks of the map. Only the cells that the swept circle may touch are checked. The map is only read, so
+     * several threads can search at the same time (each with objects of its own).
+     * @param x1 the x value of the start of the movement.
+     * @param y1 the y value of the start of the movement.
+     * @param x2 the x value of the end of the movement.
+     * @param y2 the y value of the end of the movement.
+     * @param radius the radius of the ball.
+     * @param maxT only hits that are closer than this part of the movement are searched.
+     * @param closestHit the object that the closest hit is written to (only if a closer hit than maxT is found).
+     * @param scratchHit an object that the hit of each cell is written to.
+     * @return the index of the cell of the closest hit, or -1 if there is no hit closer than maxT.
+     */
+    public int closestCell(double x1, double y1, double x2, double y2, double radius, double maxT,
+                           SegmentHit closestHit, SegmentHit scratchHit) {
+        // The range of the cells that the bounding box of the swept circle overlaps.
+        int minColumn = (int) Math.floor((Math.min(x1, x2) - radius - this.originX) / this.cellWidth);
+        int maxColumn = (int) Math.floor((Math.max(x1, x2) + radius - this.originX) / this.cellWidth);
+        int minRow = (int) Math.floor((Math.min(y1, y2) - radius - this.originY) / this.cellHeight);
+        int maxRow = (int) Math.floor((Math.max(y1, y2) + radius - this.originY) / this.cellHeight);
+        minColumn = Math.max(0, minColumn);
+        minRow = Math.max(0, minRow);
+        maxColumn = Math.min(this.columns - 1, maxColumn);
+        maxRow = Math.min(this.rows - 1, maxRow);
+        int closestCell = -1;
+        double closestT = maxT;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cell = row * this.columns + column;
+                if (!this.occupied.get(cell)) {
+                    continue;
+                }
+                double minX = this.originX + column * this.cellWidth;
+                double minY = this.originY + row * this.cellHeight;
+                if (AabbIntersection.sweptCircleVsAabb(x1, y1, x2, y2, radius, minX, minY,
+                        minX + this.cellWidth, minY + this.cellHeight, scratchHit) && scratchHit.getT() < closestT) {
+                    closestHit.copy(scratchHit);
+                    closestT = scratchHit.getT();
+                    closestCell = cell;
+                }
+            }
+        }
+        return closestCell;
+    } // closestCell
+
+    /**
+     * Draw the blocks of the map on the screen (by the edges of the cells, without creating their rectangles).
+     * @param d a surface you can draw on.
+     */
+    @Override
+    public void drawOn(DrawSurface d) {
+        int width = (int) this.cellWidth;
+        int height = (int) this.cellHeight;
+        for (int cell = this.occupied.nextSetBit(0); cell >= 0; cell = this.occupied.nextSetBit(cell + 1)) {
+            int typeId = Byte.toUnsignedInt(this.typeIds[cell]);
+            BlockBackground[] typeBackgrounds = this.backgrounds.get(typeId);
+            int hits = this.hitPoints[cell];
+            int x = (int) cellMinX(cell);
+            int y = (int) cellMinY(cell);
+            if (hits < typeBackgrounds.length && typeBackgrounds[hits] != null) {
+                typeBackgrounds[hits].draw(d, x, y, width, height);
+            }
+            // If the blocks of the type have an outline, draw it.
+            Stroke stroke = this.types.get(typeId).getStroke();
+            if (stroke != null) {
+                stroke.draw(d, x, y, width, height);
+            }
+        }
+    } // drawOn
+
+    @Override
+    public void timePassed(double dt) {
+    }
+
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
+    /**
+     * Add the map to the game, calling the appropriate game methods.
+     * @param g the game that the map should be added to.
+     */
+    @Override
+    public void addToGame(GameLevel g) {
+        g.addSprite(this);
+        g.addTileMap(this);
+    }
+
+} // class TileMap
@@ -0,0 +1,474 @@
+package tools;
+
+import java.util.Random;
+
+import geometry.Line;
+import geometry.Point;
+import geometry.SegmentIntersection;
+
+/**
+ * The LineIntersectionCheck class checks the parametric intersection of segments (Line.intersectionParameters) on
+ * random segments, and compares it with the slope-based intersection that it replaced (a copy of it is kept here, in
+ * SlopeIntersection). It's run from the command line (make check), and it exits with status 1 if a check fails:
+ * java tools.LineIntersectionCheck [number of pairs] [seed]
+ * The checks:
+ * 1. Crossing segments that are built through a known point (many of them almost vertical) intersect at that point.
+ * 2. Segments whose bounding boxes are apart don't intersect.
+ * 3. The intersection is symmetric: a with b intersect if b with a intersect, at the same point.
+ * 4. The parameters match the point: start + t * (end - start) of each segment is the intersection point.
+ * 5. On random pairs, every intersection point is on both segments, the points that both implementations find
+ *    agree, and every intersection that only the slope-based implementation finds is not on both segments.
+ * Then the time of each implementation is measured on the random pairs.
+ */
+public class LineIntersectionCheck {
+    // The tolerance of the intersection tests (in pixels), as in Line.
+    private static final double EPSILON = 0.007;
+    private static final int DEFAULT_PAIRS = 200000;
+    private static final long DEFAULT_SEED = 1;
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int BENCHMARK_ROUNDS = 5;
+    // Declare the members of the class.
+    private Random random;
+    private int failures = 0;
+
+    /**
+     * Constructor.
+     * @param seed the seed of the random segments.
+     */
+    public LineIntersectionCheck(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Run the checks and the benchmark.
+     * @param args the number of the pairs of segments, and the seed of the random segments (both optional).
+     */
+    public static void main(String[] args) {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PAIRS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+        LineIntersectionCheck check = new LineIntersectionCheck(seed);
+        check.checkCrossings(pairs);
+        check.checkApart(pairs);
+        Line[][] randomPairs = check.randomPairs(pairs);
+        check.checkRandomPairs(randomPairs);
+        check.benchmark(randomPairs);
+        if (check.failures > 0) {
+            System.out.println("FAILED: " + check.failures + " checks failed");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    /**
+     * Report a failed check.
+     * @param message the description of the failure.
+     */
+    private void fail(String message) {
+        if (this.failures < 10) {
+            System.out.println("  failure: " + message);
+        }
+        this.failures++;
+    }
+
+    /**
+     * @return a random direction (a unit vector), almost vertical in a quarter of the cases.
+     */
+    private double[] randomDirection() {
+        if (this.random.nextInt(4) == 0) {
+            double dx = Math.pow(10, -3 - 6 * this.random.nextDouble()) * (this.random.nextBoolean() ? 1 : -1);
+            double length = Math.sqrt(dx * dx + 1);
+            return new double[] {dx / length, (this.random.nextBoolean() ? 1 : -1) / length};
+        }
+        double angle = this.random.nextDouble() * 2 * Math.PI;
+        return new double[] {Math.cos(angle), Math.sin(angle)};
+    }
+
+    /**
+     * @param x the x value of a point on the segment.
+     * @param y the y value of a point on the segment.
+     * @param direction the direction of the segment.
+     * @return a segment through the point, whose length is 1 to 200 pixels (the point is at a random part of it).
+     */
+    private Line segmentThrough(double x, double y, double[] direction) {
+        double length = 1 + this.random.nextDouble() * 199;
+        double before = this.random.nextDouble() * length;
+        return new Line(x - direction[0] * before, y - direction[1] * before,
+            x + direction[0] * (length - before), y + direction[1] * (length - before));
+    }
+
+    /**
+     * Check that crossing segments that are built through a known point intersect at that point, and count the
+     * crossings that the slope-based implementation misses.
+     * @param pairs the number of the pairs.
+     */
+    private void checkCrossings(int pairs) {
+        SegmentIntersection result = new SegmentIntersection();
+        int slopeMisses = 0;
+        int checked = 0;
+        for (int i = 0; i < pairs; i++) {
+            double x = this.random.nextDouble() * WIDTH;
+            double y = this.random.nextDouble() * HEIGHT;
+            double[] first = this.randomDirection();
+            double[] second = this.randomDirection();
+            // Segments that are almost parallel don't define their crossing point well, so they are skipped.
+            if (Math.abs(first[0] * second[1] - first[1] * second[0]) < 1e-2) {
+                continue;
+            }
+            checked++;
+            Line a = this.segmentThrough(x, y, first);
+            Line b = this.segmentThrough(x, y, second);
+            if (!a.intersectionParameters(b, result)) {
+                this.fail("crossing segments " + describe(a) + " and " + describe(b) + " don't intersect");
+            } else if (distance(result.getX(), result.getY(), x, y) > EPSILON) {
+                this.fail("crossing segments " + describe(a) + " and " + describe(b) + " intersect at ("
+                    + result.getX() + ", " + result.getY() + ") instead of (" + x + ", " + y + ")");
+            }
+            Point slopePoint = SlopeIntersection.intersectionWith(a, b);
+            if (slopePoint == null || distance(slopePoint.getX(), slopePoint.getY(), x, y) > EPSILON) {
+                slopeMisses++;
+            }
+        }
+        System.out.println("crossings: " + checked + " checked, the slope-based implementation missed "
+            + slopeMisses);
+    }
+
+    /**
+     * Check that segments whose bounding boxes are apart don't intersect.
+     * @param pairs the number of the pairs.
+     */
+    private void checkApart(int pairs) {
+        SegmentIntersection result = new SegmentIntersection();
+        for (int i = 0; i < pairs; i++) {
+            // The first segment is left of x = 400 and the second one is right of x = 401.
+            Line a = new Line(this.random.nextDouble() * 400, this.random.nextDouble() * HEIGHT,
+                this.random.nextDouble() * 400, this.random.nextDouble() * HEIGHT);
+            Line b = new Line(401 + this.random.nextDouble() * 399, this.random.nextDouble() * HEIGHT,
+                401 + this.random.nextDouble() * 399, this.random.nextDouble() * HEIGHT);
+            if (a.intersectionParameters(b, result) || b.intersectionParameters(a, result)) {
+                this.fail("segments " + describe(a) + " and " + describe(b) + " are apart but intersect");
+            }
+        }
+        System.out.println("apart: " + pairs + " checked");
+    }
+
+    /**
+     * @param pairs the number of the pairs.
+     * @return random pairs of segments on the screen (a part of them horizontal, vertical or single points, and a
+     * part of them with whole coordinates, like the edges of the blocks).
+     */
+    private Line[][] randomPairs(int pairs) {
+        Line[][] lines = new Line[pairs][];
+        for (int i = 0; i < pairs; i++) {
+            lines[i] = new Line[] {this.randomSegment(), this.randomSegment()};
+        }
+        return lines;
+    }
+
+    /**
+     * @return a random segment on the screen.
+     */
+    private Line randomSegment() {
+        boolean whole = this.random.nextBoolean();
+        double x1 = this.coordinate(WIDTH, whole);
+        double y1 = this.coordinate(HEIGHT, whole);
+        double x2 = this.coordinate(WIDTH, whole);
+        double y2 = this.coordinate(HEIGHT, whole);
+        switch (this.random.nextInt(8)) {
+            case 0:
+                return new Line(x1, y1, x2, y1);
+            case 1:
+                return new Line(x1, y1, x1, y2);
+            case 2:
+                return new Line(x1, y1, x1, y1);
+            default:
+                return new Line(x1, y1, x2, y2);
+        }
+    }
+
+    /**
+     * @param bound the bound of the coordinate.
+     * @param whole true for a whole coordinate, false for any coordinate.
+     * @return a random coordinate in the range 0 to bound.
+     */
+    private double coordinate(int bound, boolean whole) {
+        return whole ? this.random.nextInt(bound + 1) : this.random.nextDouble() * bound;
+    }
+
+    /**
+     * Check the symmetry and the parameters of the intersections of the random pairs, and compare them with the
+     * slope-based implementation.
+     * @param pairs the random pairs.
+     */
+    private void checkRandomPairs(Line[][] pairs) {
+        SegmentIntersection result = new SegmentIntersection();
+        SegmentIntersection reversed = new SegmentIntersection();
+        int hits = 0;
+        int shared = 0;
+        int onlyParametric = 0;
+        int onlySlope = 0;
+        int slopeOffSegment = 0;
+        double maxDifference = 0;
+        for (Line[] pair : pairs) {
+            Line a = pair[0];
+            Line b = pair[1];
+            boolean hit = a.intersectionParameters(b, result);
+            if (hit != b.intersectionParameters(a, reversed)) {
+                this.fail("the intersection of " + describe(a) + " and " + describe(b) + " isn't symmetric");
+            } else if (hit && distance(result.getX(), result.getY(), reversed.getX(), reversed.getY()) > EPSILON
+                && !collinear(a, b)) {
+                this.fail("the intersection of " + describe(a) + " and " + describe(b) + " isn't symmetric");
+            }
+            if (hit) {
+                hits++;
+                if (distance(pointAt(a, result.getT()), result) > EPSILON
+                    || distance(pointAt(b, result.getU()), result) > EPSILON) {
+                    this.fail("the parameters of the intersection of " + describe(a) + " and " + describe(b)
+                        + " don't match its point");
+                }
+                if (distanceToSegment(a, result.getX(), result.getY()) > EPSILON
+                    || distanceToSegment(b, result.getX(), result.getY()) > EPSILON) {
+                    this.fail("the intersection of " + describe(a) + " and " + describe(b) + " isn't on both");
+                }
+            }
+            Point slopePoint = SlopeIntersection.intersectionWith(a, b);
+            if (hit && slopePoint != null) {
+                shared++;
+                if (!collinear(a, b)) {
+                    maxDifference = Math.max(maxDifference,
+                        distance(slopePoint.getX(), slopePoint.getY(), result.getX(), result.getY()));
+                }
+            } else if (hit) {
+                onlyParametric++;
+            } else if (slopePoint != null) {
+                onlySlope++;
+                // An intersection that only the slope-based implementation finds must be a wrong one.
+                if (distanceToSegment(a, slopePoint.getX(), slopePoint.getY()) <= EPSILON
+                    && distanceToSegment(b, slopePoint.getX(), slopePoint.getY()) <= EPSILON) {
+                    this.fail("the intersection of " + describe(a) + " and " + describe(b) + " at ("
+                        + slopePoint.getX() + ", " + slopePoint.getY() + ") was missed");
+                } else {
+                    slopeOffSegment++;
+                }
+            }
+        }
+        if (maxDifference > EPSILON) {
+            this.fail("the implementations disagree on a shared intersection by " + maxDifference + " pixels");
+        }
+        System.out.println("random pairs: " + pairs.length + " checked, " + hits + " intersect (" + shared
+            + " found by both, " + onlyParametric + " only by the parametric implementation, " + onlySlope
+            + " only by the slope-based one, " + slopeOffSegment + " of them off the segments); the largest "
+            + "difference of a shared intersection is " + maxDifference + " pixels");
+    } // checkRandomPairs
+
+    /**
+     * Measure the time of each implementation on the random pairs (the best of several rounds).
+     * @param pairs the random pairs.
+     */
+    private void benchmark(Line[][] pairs) {
+        SegmentIntersection result = new SegmentIntersection();
+        long bestParametric = Long.MAX_VALUE;
+        long bestPoint = Long.MAX_VALUE;
+        long bestSlope = Long.MAX_VALUE;
+        // The number of the hits is printed, so the calls aren't optimized away.
+        long hits = 0;
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Line[] pair : pairs) {
+                if (pair[0].intersectionParameters(pair[1], result)) {
+                    hits++;
+                }
+            }
+            bestParametric = Math.min(bestParametric, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (Line[] pair : pairs) {
+                if (pair[0].intersectionWith(pair[1]) != null) {
+                    hits++;
+                }
+            }
+            bestPoint = Math.min(bestPoint, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (Line[] pair : pairs) {
+                if (SlopeIntersection.intersectionWith(pair[0], pair[1]) != null) {
+                    hits++;
+                }
+            }
+            bestSlope = Math.min(bestSlope, System.nanoTime() - start);
+        }
+        System.out.printf("benchmark (best of %d rounds, %d hits): intersectionParameters %.1f ns/pair, "
+            + "intersectionWith %.1f ns/pair, slope-based %.1f ns/pair%n", BENCHMARK_ROUNDS, hits,
+            (double) bestParametric / pairs.length, (double) bestPoint / pairs.length,
+            (double) bestSlope / pairs.length);
+    }
+
+    /**
+     * @param a a segment.
+     * @param b another segment.
+     * @return true if the segments are on the same line (their intersection may be any point of their overlap).
+     */
+    private static boolean collinear(Line a, Line b) {
+        return distanceToLine(a, b.start()) <= EPSILON && distanceToLine(a, b.end()) <= EPSILON;
+    }
+
+    /**
+     * @param line a segment.
+     * @param point a point.
+     * @return the distance of the point from the infinite line of the segment (or from its start, if it's a point).
+     */
+    private static double distanceToLine(Line line, Point point) {
+        double rx = line.end().getX() - line.start().getX();
+        double ry = line.end().getY() - line.start().getY();
+        double length = Math.sqrt(rx * rx + ry * ry);
+        if (length == 0) {
+            return distance(point.getX(), point.getY(), line.start().getX(), line.start().getY());
+        }
+        return Math.abs((point.getX() - line.start().getX()) * ry - (point.getY() - line.start().getY()) * rx)
+            / length;
+    }
+
+    /**
+     * @param line a segment.
+     * @param x the x value of a point.
+     * @param y the y value of a point.
+     * @return the distance of the point from the segment.
+     */
+    private static double distanceToSegment(Line line, double x, double y) {
+        double x1 = line.start().getX();
+        double y1 = line.start().getY();
+        double rx = line.end().getX() - x1;
+        double ry = line.end().getY() - y1;
+        double rr = rx * rx + ry * ry;
+        double t = rr == 0 ? 0 : Math.max(0, Math.min(1, ((x - x1) * rx + (y - y1) * ry) / rr));
+        return distance(x, y, x1 + t * rx, y1 + t * ry);
+    }
+
+    /**
+     * @param line a segment.
+     * @param t a parameter on the segment.
+     * @return the point start + t * (end - start).
+     */
+    private static Point pointAt(Line line, double t) {
+        return new Point(line.start().getX() + t * (line.end().getX() - line.start().getX()),
+            line.start().getY() + t * (line.end().getY() - line.start().getY()));
+    }
+
+    /**
+     * @param point a point.
+     * @param intersection an intersection.
+     * @return the distance between the point and the point of the intersection.
+     */
+    private static double distance(Point point, SegmentIntersection intersection) {
+        return distance(point.getX(), point.getY(), intersection.getX(), intersection.getY());
+    }
+
+    /**
+     * @param x1 the x value of the first point.
+     * @param y1 the y value of the first point.
+     * @param x2 the x value of the second point.
+     * @param y2 the y value of the second point.
+     * @return the distance between the points.
+     */
+    private static double distance(double x1, double y1, double x2, double y2) {
+        return Math.sqrt((x1 - x2) * (x1 - x2) + (y1 - y2) * (y1 - y2));
+    }
+
+    /**
+     * @param line a segment.
+     * @return a description of the segment.
+     */
+    private static String describe(Line line) {
+        return "(" + line.start().getX() + ", " + line.start().getY() + ")-(" + line.end().getX() + ", "
+            + line.end().getY() + ")";
+    }
+
+    /**
+     * The SlopeIntersection class is a copy of the slope-based intersection of Line before it was replaced by the
+     * parametric intersection, kept only to compare the two. It finds the intersection of the infinite lines by
+     * their slopes (or by the x value of a vertical line), and then checks that the point is in the ranges of both
+     * segments. The start of a Line is its leftmost point.
+     */
+    private static final class SlopeIntersection {
+
+        /**
+         * The class has only static methods.
+         */
+        private SlopeIntersection() {
+        }
+
+        /**
+         * @param line a segment.
+         * @param x the x value of the point.
+         * @param y the y value of the point.
+         * @return true if the point is in the ranges of the segment, false otherwise.
+         */
+        private static boolean isInTheSegment(Line line, double x, double y) {
+            Point start = line.start();
+            Point end = line.end();
+            if (start.getY() <= end.getY()) {
+                return start.getX() - EPSILON <= x && start.getY() - EPSILON <= y
+                    && end.getX() + EPSILON >= x && end.getY() + EPSILON >= y;
+            }
+            return start.getX() - EPSILON <= x && start.getY() + EPSILON >= y
+                && end.getX() + EPSILON >= x && end.getY() + EPSILON <= y;
+        }
+
+        /**
+         * @param line a segment that isn't vertical.
+         * @return the slope of the segment.
+         */
+        private static double slope(Line line) {
+            return (line.end().getY() - line.start().getY()) / (line.end().getX() - line.start().getX());
+        }
+
+        /**
+         * @param vertical a vertical segment.
+         * @param other a segment that isn't vertical.
+         * @return the intersection point of the segments, or null if they don't intersect.
+         */
+        private static Point verticalIntersection(Line vertical, Line other) {
+            double m = slope(other);
+            double b = other.start().getY() - m * other.start().getX();
+            double x = vertical.start().getX();
+            double y = m * x + b;
+            if (isInTheSegment(vertical, x, y) && isInTheSegment(other, x, y)) {
+                return new Point(x, y);
+            }
+            return null;
+        }
+
+        /**
+         * @param first a segment.
+         * @param second another segment.
+         * @return the intersection point of the segments, or null if they don't intersect.
+         */
+        static Point intersectionWith(Line first, Line second) {
+            boolean firstVertical = first.start().getX() == first.end().getX();
+            boolean secondVertical = second.start().getX() == second.end().getX();
+            if (firstVertical && secondVertical) {
+                // Only two equal single points intersect.
+                if (first.start().equals(first.end()) && first.equals(second)) {
+                    return first.start();
+                }
+                return null;
+            } else if (firstVertical) {
+                return verticalIntersection(first, second);
+            } else if (secondVertical) {
+                return verticalIntersection(second, first);
+            }
+            double m1 = slope(first);
+            double m2 = slope(second);
+            if (m1 == m2) {
+                return null;
+            }
+            double b1 = first.start().getY() - m1 * first.start().getX();
+            double b2 = second.start().getY() - m2 * second.start().getX();
+            double x = (b2 - b1) / (m1 - m2);
+            double y = m1 * x + b1;
+            if (isInTheSegment(first, x, y) && isInTheSegment(second, x, y)) {
+                return new Point(x, y);
+            }
+            return null;
+        }
+    } // class SlopeIntersection
+
+} // class LineIntersectionCheck